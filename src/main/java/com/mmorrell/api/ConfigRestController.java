@@ -1,13 +1,28 @@
 package com.mmorrell.api;
 
 import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.BookStaleness;
+import com.mmorrell.marketdata.HedgedRpcClient;
+import com.mmorrell.marketdata.MarketDataService;
+import com.mmorrell.marketdata.MarketSnapshot;
+import com.mmorrell.marketdata.book.BookSignals;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.pricing.EwmaVolatility;
+import com.mmorrell.pricing.FairValue;
+import com.mmorrell.pricing.FairValueEngine;
+import com.mmorrell.pricing.JupiterPricingSource;
+import com.mmorrell.pricing.PriceLatencyTracker;
+import com.mmorrell.pricing.PythPricingSource;
 import com.mmorrell.strategies.openbook.sol.OpenBookSolUsdc;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.mmorrell.config.OpenBookConfig.ALLOWED_PRICING_BPS_MISMATCH;
 import static com.mmorrell.config.OpenBookConfig.ASK_API_TUNING_FACTOR;
@@ -31,8 +46,51 @@ import static com.mmorrell.config.OpenBookConfig.widenBids;
 public class ConfigRestController {
 
     private final OpenBookSolUsdc openBookSolUsdc;
-    public ConfigRestController(OpenBookSolUsdc openBookSolUsdc) {
+    private final HedgedRpcClient dataRpcClient;
+    private final MarketDataJournal journal;
+    private final MarketDataService marketDataService;
+    private final JupiterPricingSource jupiterPricingSource;
+    private final FairValueEngine fairValueEngine;
+    private final PriceLatencyTracker priceLatencyTracker;
+    public ConfigRestController(OpenBookSolUsdc openBookSolUsdc,
+                                @Qualifier("data") HedgedRpcClient dataRpcClient,
+                                MarketDataJournal journal,
+                                MarketDataService marketDataService,
+                                JupiterPricingSource jupiterPricingSource,
+                                FairValueEngine fairValueEngine,
+                                PriceLatencyTracker priceLatencyTracker) {
         this.openBookSolUsdc = openBookSolUsdc;
+        this.dataRpcClient = dataRpcClient;
+        this.journal = journal;
+        this.marketDataService = marketDataService;
+        this.jupiterPricingSource = jupiterPricingSource;
+        this.fairValueEngine = fairValueEngine;
+        this.priceLatencyTracker = priceLatencyTracker;
+    }
+
+    @GetMapping(value = "/1337pwn/dataRpcStats")
+    public Map<String, Map<String, Object>> dataRpcStats() {
+        return dataRpcClient.getStats();
+    }
+
+    @GetMapping(value = "/1337pwn/marketDataStats")
+    public Map<String, Map<String, Object>> marketDataStats() {
+        return marketDataService.getStats();
+    }
+
+    @GetMapping(value = "/1337pwn/jupiterPrices")
+    public Map<String, Object> jupiterPrices() {
+        return jupiterPricingSource.getStats();
+    }
+
+    @GetMapping(value = "/1337pwn/fairValue")
+    public Map<String, FairValue> fairValue() {
+        return fairValueEngine.snapshot();
+    }
+
+    @GetMapping(value = "/1337pwn/priceLatency")
+    public Map<String, Object> priceLatency() {
+        return priceLatencyTracker.getStats();
     }
 
     @GetMapping(value = "/1337pwn/1337status")
@@ -71,6 +129,48 @@ public class ConfigRestController {
                 "bids", String.format("%.6f", BID_API_TUNING_FACTOR),
                 "asks", String.format("%.6f", ASK_API_TUNING_FACTOR)
         ));
+        MarketSnapshot snapshot = openBookSolUsdc.getMarketSnapshot().get();
+        BookStaleness staleness = openBookSolUsdc.getBookStaleness();
+        results.put("book", Map.of(
+                "bidsSlot", String.valueOf(snapshot.getBidsSlot()),
+                "asksSlot", String.valueOf(snapshot.getAsksSlot()),
+                "droppedOutOfOrder", String.valueOf(openBookSolUsdc.getMarketSnapshot().getDroppedCount()),
+                "ageMs", String.valueOf(staleness.getLastAgeMs()),
+                "clusterSlot", String.valueOf(staleness.getClusterSlot()),
+                "slotLag", String.valueOf(staleness.getLastSlotLag()),
+                "stale", String.valueOf(staleness.isStale()),
+                "staleEpisodes", String.valueOf(staleness.getStaleEpisodes()),
+                "fetchErrors", String.valueOf(openBookSolUsdc.getFetchErrorCount().get()),
+                "pollIntervalMs", String.valueOf(openBookSolUsdc.getBookPollRate().getIntervalMs())
+        ));
+        BookSignals signals = openBookSolUsdc.getBookSignals();
+        results.put("signals", Map.of(
+                "microprice", String.format("%.6f", signals.getMicroprice()),
+                "micropriceSkewBps", String.format("%.3f", signals.getMicropriceSkew() * 10_000),
+                "micropriceChange", String.format("%.6f", signals.getMicropriceChange()),
+                "imbalance", String.format("%.4f", signals.getImbalance()),
+                "imbalanceChange", String.format("%.4f", signals.getImbalanceChange())
+        ));
+        results.put("volatility", Map.of(
+                "pyth", volatility(openBookSolUsdc.getPythVolatility()),
+                "book", volatility(openBookSolUsdc.getBookVolatility())
+        ));
+        PythPricingSource pyth = openBookSolUsdc.getPythPricingSource();
+        results.put("pyth", Map.of(
+                "live", String.valueOf(pyth.isLive()),
+                "publishSlot", String.valueOf(pyth.getSolPricePublishSlot()),
+                "ageMs", String.valueOf(TimeUnit.NANOSECONDS.toMillis(
+                        System.nanoTime() - pyth.getSolPriceReceivedNanos())),
+                "feeds", String.valueOf(pyth.getPriceCache().snapshot()),
+                "droppedUpdates", String.valueOf(pyth.getPriceCache().getDroppedCount()),
+                "duplicateUpdates", String.valueOf(pyth.getPriceCache().getDuplicateCount())
+        ));
+        results.put("journal", Map.of(
+                "enabled", String.valueOf(journal.isEnabled()),
+                "recorded", String.valueOf(journal.getRecordedCount()),
+                "dropped", String.valueOf(journal.getDroppedCount()),
+                "bytesWritten", String.valueOf(journal.getBytesWritten())
+        ));
 
         return results;
     }
@@ -211,5 +311,13 @@ public class ConfigRestController {
         return Map.of("status", "done");
     }
 
-
+    // Volatility per half-life, in bps per square root of a second
+    private static Map<String, String> volatility(EwmaVolatility estimator) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < estimator.size(); i++) {
+            result.put(estimator.getHalfLifeMs(i) + "ms", String.format("%.3f", estimator.getVolatility(i) * 10_000));
+        }
+        result.put("ticks", String.valueOf(estimator.getTickCount()));
+        return result;
+    }
 }
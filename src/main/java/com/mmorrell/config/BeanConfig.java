@@ -1,6 +1,13 @@
 package com.mmorrell.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.marketdata.HedgedRpcClient;
+import com.mmorrell.marketdata.MarketDataService;
+import com.mmorrell.marketdata.MarketMetadataCache;
+import com.mmorrell.marketdata.PollBudget;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.pricing.FairValueEngine;
+import com.mmorrell.pricing.PriceLatencyTracker;
 import com.mmorrell.pyth.manager.PythManager;
 import com.mmorrell.serum.manager.SerumManager;
 import okhttp3.OkHttpClient;
@@ -12,6 +19,11 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 @PropertySource("classpath:openbook.properties")
 @EnableScheduling
@@ -26,6 +38,28 @@ public class BeanConfig {
     @Value("${solana.data.rpc.url}")
     public String DATA_RPC_URL;
 
+    // Extra data endpoints for hedged reads, comma separated
+    @Value("${solana.data.rpc.hedge.urls:}")
+    public String[] DATA_RPC_HEDGE_URLS;
+
+    @Value("${openbook.market.cache.dir:market-cache}")
+    public String MARKET_CACHE_DIR;
+
+    @Value("${openbook.marketdata.poll.floor.ms:105}")
+    public long POLL_FLOOR_MS;
+
+    @Value("${openbook.marketdata.poll.budget.rps:25}")
+    public double POLL_BUDGET_RPS;
+
+    @Value("${openbook.journal.enabled:false}")
+    public boolean JOURNAL_ENABLED;
+
+    @Value("${openbook.journal.dir:journal}")
+    public String JOURNAL_DIR;
+
+    @Value("${openbook.journal.file.size.mb:256}")
+    public int JOURNAL_FILE_SIZE_MB;
+
     @Bean
     public RpcClient rpcClient() {
         int readTimeoutMs = 1050;
@@ -40,18 +74,61 @@ public class BeanConfig {
     }
 
     @Bean(name = "data")
-    public RpcClient dataRpcClient() {
+    public HedgedRpcClient dataRpcClient() {
         int readTimeoutMs = 1050;
         int connectTimeoutMs = 470;
         int writeTimeoutMs = 955;
-        return new RpcClient(
-                DATA_RPC_URL,
+        List<String> urls = new ArrayList<>();
+        urls.add(DATA_RPC_URL);
+        Arrays.stream(DATA_RPC_HEDGE_URLS)
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .forEach(urls::add);
+        return new HedgedRpcClient(
+                urls,
                 readTimeoutMs,
                 connectTimeoutMs,
                 writeTimeoutMs
         );
     }
 
+    @Bean
+    public MarketMetadataCache marketMetadataCache() {
+        return new MarketMetadataCache(dataRpcClient(), Path.of(MARKET_CACHE_DIR));
+    }
+
+    // One book feed per market, shared by all strategies
+    @Bean
+    public MarketDataService marketDataService() {
+        return new MarketDataService(dataRpcClient(), marketMetadataCache(), POLL_FLOOR_MS, dataPollBudget());
+    }
+
+    // Book polls against the data endpoint, from the shared feeds and the SOL/USDC poller alike
+    @Bean
+    public PollBudget dataPollBudget() {
+        return new PollBudget(POLL_BUDGET_RPS);
+    }
+
+    // One fair value per market, blended from each strategy's sources
+    @Bean
+    public FairValueEngine fairValueEngine() {
+        return new FairValueEngine();
+    }
+
+    // Publish-to-receive and receive-to-use latency per pricing source, rotated every minute
+    @Bean
+    public PriceLatencyTracker priceLatencyTracker() {
+        return new PriceLatencyTracker();
+    }
+
+    @Bean
+    public MarketDataJournal marketDataJournal() {
+        if (!JOURNAL_ENABLED) {
+            return MarketDataJournal.disabled();
+        }
+        return new MarketDataJournal(Path.of(JOURNAL_DIR), JOURNAL_FILE_SIZE_MB * 1024L * 1024L);
+    }
+
     @Bean
     public SerumManager serumManager() {
         return new SerumManager(rpcClient());
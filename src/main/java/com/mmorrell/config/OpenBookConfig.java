@@ -19,12 +19,16 @@ public class OpenBookConfig {
     // SOL
     public static final PublicKey SOL_USDC_MARKET_ID
             = new PublicKey("8BnEgHoWFysVcuFFX7QztDmzuH8r5ZFvyP3sYwn1XTh6");
+    public static final String PYTH_SOL_SYMBOL = "SOL";
+    public static final PublicKey PYTH_SOL_USD_PRICE_ACCOUNT
+            = new PublicKey("H6ARHf6YXhGYeQfUzQNGk6rDNnLBQKrenN712K4AQJEG");
 
     // JitoSol
     public static final PublicKey JITOSOL_USDC_MARKET_ID
             = new PublicKey("JAmhJbmBzLp2aTp9mNJodPsTcpCJsmq5jpr6CuCbWHvR");
     public static final PublicKey JITOSOL_USDC_OOA
             = new PublicKey("9YMZ97VzSpwdTrr8JxG55D1LwHYqjz6Z4PrsgYpd8i2x");
+    public static final String PYTH_JITOSOL_SYMBOL = "JitoSOL"; // key in openbook.pyth.feeds
     public static final PublicKey JITOSOL_BASE_WALLET
             = new PublicKey("45RRcrU7JMBQug4Gy2G7bapZVqfkeBgjERoMFL16vd6x");
 
@@ -33,6 +37,8 @@ public class OpenBookConfig {
             = new PublicKey("JCKa72xFYGWBEVJZ7AKZ2ofugWPBfrrouQviaGaohi3R");
     public static final PublicKey STSOL_USDC_OOA
             = new PublicKey("997oiwbj29k5xDDVn9H5h1QmA6zsQ7UB1jqrCaLBqNEY");
+    public static final String PYTH_STSOL_SYMBOL = "stSOL"; // key in openbook.pyth.feeds
+    public static final String JUPITER_SOL_SYMBOL = "SOL"; // priced with each LST, for its SOL rate
     public static final PublicKey STSOL_BASE_WALLET
             = new PublicKey("CEGu1nP3t2BStW5e71YnvjZRN1oMstJxgtm4PXNa8KGj");
 
@@ -55,6 +61,35 @@ public class OpenBookConfig {
     public static final float EVENT_QUEUE_SIZE_ASK_WIDEN = 1.0003f;
     public static final int EVENT_LOOP_DURATION_MS = 165;
     public static final long ORDER_BOOK_POLL_INTERVAL = 210L;
+    public static final long ORDER_BOOK_POLL_FLOOR = 105L; // SOL/USDC adaptive poll, while the book changes
+    public static final long ORDER_BOOK_POLL_CEILING = 840L; // and while it's idle
+    public static final long LIVE_FEED_POLL_INTERVAL = 420L; // event queue/OOA/wallets while books are pushed
+    public static final long JUPITER_REFRESH_INTERVAL_MS = 5_000L; // one batched request for every tracked id
+    public static final long JUPITER_PRICE_TTL_MS = 30_000L; // not quoted from once older
+    public static final double JUPITER_CONFIDENCE = 0.001; // nominal, as a fraction of price: Jupiter reports none
+    public static final long FAIR_VALUE_HALF_LIFE_MS = 2_000L; // a source's weight halves every half-life of age
+    public static final long FAIR_VALUE_MAX_SOURCE_AGE_MS = 15_000L; // and is dropped from the blend after this
+    public static final double FAIR_VALUE_WEIGHT_PYTH = 1.0;
+    public static final double FAIR_VALUE_WEIGHT_BOOK = 1.0;
+    public static final double FAIR_VALUE_WEIGHT_JUPITER = 0.5;
+    public static final double FAIR_VALUE_WEIGHT_IMPLIED = 1.0; // LSTs: SOL/USDC fair value times LST/SOL
+    public static final double IMPLIED_LST_CONFIDENCE = 0.0005; // nominal, as a fraction of price
+    public static final long LST_RATE_HALF_LIFE_MS = 600_000L; // LST/SOL only drifts with staking yield
+    public static final String SOL_USDC_FAIR_VALUE_MARKET = "SOL/USDC";
+    public static final int SIGNAL_DEPTH_LEVELS = 5; // book levels per side in the imbalance signal
+    public static final long SIGNAL_HORIZON_MS = 2_000L; // signal changes are measured over this
+    public static final double SIGNAL_MICROPRICE_WEIGHT = 0.5; // share of the microprice lean quotes follow
+    public static final double SIGNAL_IMBALANCE_CHANGE_WEIGHT = 0.00005; // skew for a full -1 to 1 imbalance swing
+    public static final double SIGNAL_MAX_SKEW = 0.0002; // 2 bps, either way
+    public static final long[] VOLATILITY_HALF_LIVES_MS = {5_000L, 30_000L, 300_000L};
+    public static final long VOLATILITY_QUOTE_HORIZON_MS = 4_000L; // price risk of a resting quote is over this
+    public static final double VOLATILITY_FREE_MOVE = 0.0005; // expected move the default spreads already cover
+    public static final double VOLATILITY_MAX_WIDEN = 0.002; // 20 bps per side at most
+    public static final long PRICE_LATENCY_INTERVAL_MS = 60_000L; // latency histograms rotate this often
+    public static final long SLOT_DURATION_MS = 400L; // nominal, turns slot lags into time
+    public static final long CLUSTER_SLOT_POLL_INTERVAL = 400L; // tip slot for book slot lag
+    public static final long DEFAULT_STALE_BOOK_MS = 1_500L; // pull quotes when the book is older
+    public static final long DEFAULT_STALE_BOOK_SLOT_LAG = 8L; // or further behind the tip
     public static final long LEAN_CALCULATION_INITIAL_DELAY = 1000L;
     public static final long LEAN_CALCULATION_INTERVAL = 9_000L;
     public static final long BID_CLIENT_ID = 113371L;
@@ -83,7 +118,6 @@ public class OpenBookConfig {
     public static PublicKey WSOL_BASE_WALLET;
     public static Account mmAccount;
     public static Market solUsdcMarket;
-    public static MarketBuilder solUsdcMarketBuilder;
     public static Market jitoSolUsdcMarket;
     public static MarketBuilder jitoSolUsdcMarketBuilder;
     public static Market stSolUsdcMarket;
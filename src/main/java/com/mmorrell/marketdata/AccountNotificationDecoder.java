@@ -0,0 +1,130 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Decodes accountSubscribe socket messages with a streaming parser: subscription confirmations, and account
+ * notifications down to their slot and account data, base64-decoded by the parser straight from the token. No
+ * tree and no intermediate base64 string.
+ * <p>
+ * Holds the last decoded message, so not thread-safe: one per socket, whose messages arrive on one thread.
+ */
+public class AccountNotificationDecoder {
+
+    public enum Type {
+        /**
+         * {@link #getId()} confirmed as {@link #getSubscription()}.
+         */
+        SUBSCRIBED,
+        /**
+         * {@link #getSubscription()} updated at {@link #getSlot()} to {@link #getData()}.
+         */
+        ACCOUNT,
+        OTHER
+    }
+
+    private final JsonFactory jsonFactory;
+    @Getter
+    private long id;
+    @Getter
+    private long subscription;
+    @Getter
+    private long slot;
+    @Getter
+    private byte[] data;
+
+    public AccountNotificationDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public Type decode(String message) throws IOException {
+        id = -1L;
+        subscription = -1L;
+        slot = -1L;
+        data = null;
+        long result = -1L;
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Type.OTHER;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    id = parser.getLongValue();
+                } else if ("result".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    result = parser.getLongValue();
+                } else if ("params".equals(field) && value == JsonToken.START_OBJECT) {
+                    decodeParams(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (id >= 0 && result >= 0) {
+            subscription = result;
+            return Type.SUBSCRIBED;
+        }
+        return subscription >= 0 && data != null ? Type.ACCOUNT : Type.OTHER;
+    }
+
+    private void decodeParams(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("subscription".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                subscription = parser.getLongValue();
+            } else if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                decodeResult(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void decodeResult(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("context".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean isSlot = "slot".equals(parser.currentName());
+                    if (parser.nextToken() == JsonToken.VALUE_NUMBER_INT && isSlot) {
+                        slot = parser.getLongValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("value".equals(field) && value == JsonToken.START_OBJECT) {
+                decodeValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // value.data is [base64, "base64"]
+    private void decodeValue(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    data = parser.getBinaryValue(Base64Variants.MIME_NO_LINEFEEDS);
+                }
+                while (parser.currentToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    parser.nextToken();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push-based account feed. Subscribes to each account via accountSubscribe on one socket and hands every
+ * notification's raw account bytes and context slot to an {@link AccountListener} as it arrives, reconnecting
+ * after failures. Polling stays the fallback: callers should only skip their reads while {@link #isLive()} is
+ * true.
+ */
+@Slf4j
+public class AccountWebSocketFeed extends WebSocketListener {
+
+    private static final long PING_INTERVAL_MS = 5_000L;
+    private static final long RECONNECT_DELAY_MS = 1_000L;
+    // A socket that's gone quiet this long may be dead without a close, so callers poll again
+    private static final long MAX_SILENCE_MS = 10_000L;
+
+    private final OkHttpClient okHttpClient;
+    // Socket messages arrive on the socket's reader thread, one at a time
+    private final AccountNotificationDecoder decoder;
+    private final String wsUrl;
+    private final String name;
+    private final List<PublicKey> accounts;
+    private final AccountListener listener;
+    private final ScheduledExecutorService reconnectExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    // request id -> account index, then subscription id -> account index once the node confirms
+    private final Map<Long, Integer> pendingSubscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile WebSocket webSocket;
+    private volatile boolean running = false;
+    private volatile long lastUpdateMillis = 0L;
+
+    /**
+     * @param name for logs, e.g. "Order book"
+     */
+    public AccountWebSocketFeed(final OkHttpClient okHttpClient,
+                                final ObjectMapper objectMapper,
+                                final String wsUrl,
+                                final String name,
+                                final List<PublicKey> accounts,
+                                final AccountListener listener) {
+        this.okHttpClient = okHttpClient.newBuilder()
+                .pingInterval(PING_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                .build();
+        this.decoder = new AccountNotificationDecoder(objectMapper.getFactory());
+        this.wsUrl = wsUrl;
+        this.name = name;
+        this.accounts = accounts;
+        this.listener = listener;
+    }
+
+    public void start() {
+        running = true;
+        connect();
+    }
+
+    public void stop() {
+        running = false;
+        reconnectExecutor.shutdownNow();
+        if (webSocket != null) {
+            webSocket.close(1000, "stopped");
+        }
+    }
+
+    /**
+     * @return true when every account is subscribed on an open socket that has pushed an update recently.
+     */
+    public boolean isLive() {
+        return webSocket != null
+                && subscriptions.size() == accounts.size()
+                && System.currentTimeMillis() - lastUpdateMillis <= MAX_SILENCE_MS;
+    }
+
+    public long getLastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    private synchronized void connect() {
+        pendingSubscriptions.clear();
+        subscriptions.clear();
+        Request request = new Request.Builder()
+                .url(wsUrl)
+                .build();
+        webSocket = okHttpClient.newWebSocket(request, this);
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        log.info(name + " feed connected: " + wsUrl);
+        for (int index = 0; index < accounts.size(); index++) {
+            subscribe(webSocket, index + 1L, accounts.get(index), index);
+        }
+    }
+
+    private void subscribe(WebSocket webSocket, long requestId, PublicKey account, int index) {
+        pendingSubscriptions.put(requestId, index);
+        String message = String.format(
+                "{\"jsonrpc\":\"2.0\",\"id\":%d,\"method\":\"accountSubscribe\",\"params\":[\"%s\"," +
+                        "{\"encoding\":\"base64\",\"commitment\":\"processed\"}]}",
+                requestId,
+                account.toBase58()
+        );
+        webSocket.send(message);
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+        try {
+            AccountNotificationDecoder.Type type = decoder.decode(text);
+            if (type == AccountNotificationDecoder.Type.SUBSCRIBED) {
+                Integer index = pendingSubscriptions.remove(decoder.getId());
+                if (index != null) {
+                    subscriptions.put(decoder.getSubscription(), index);
+                }
+                return;
+            }
+            if (type != AccountNotificationDecoder.Type.ACCOUNT) {
+                return;
+            }
+            Integer index = subscriptions.get(decoder.getSubscription());
+            if (index == null) {
+                return;
+            }
+
+            lastUpdateMillis = System.currentTimeMillis();
+            listener.onAccount(index, decoder.getData(), decoder.getSlot());
+        } catch (Exception ex) {
+            log.error(name + " feed message error: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+        // OkHttp only calls onClosed once we close our side too
+        log.info(name + " feed closing: " + code + " " + reason);
+        webSocket.close(1000, null);
+        reconnect(webSocket);
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+        log.info(name + " feed closed: " + code + " " + reason);
+        reconnect(webSocket);
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        log.error(name + " feed failure, polling until reconnected: " + t.getMessage());
+        reconnect(webSocket);
+    }
+
+    /**
+     * Drops the current socket and schedules a new one. Callbacks of a socket already replaced are ignored, so
+     * they can't tear down its successor.
+     */
+    private synchronized void reconnect(WebSocket closed) {
+        if (closed != this.webSocket) {
+            return;
+        }
+        subscriptions.clear();
+        this.webSocket = null;
+        if (running) {
+            reconnectExecutor.schedule(this::connect, RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    public interface AccountListener {
+        /**
+         * @param index position of the account in the list the feed was created with
+         */
+        void onAccount(int index, byte[] data, long slot);
+    }
+}
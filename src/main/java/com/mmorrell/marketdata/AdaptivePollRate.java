@@ -0,0 +1,44 @@
+package com.mmorrell.marketdata;
+
+import lombok.Getter;
+
+/**
+ * Poll interval for one market that follows how often its book actually changes: halved (down to the floor)
+ * when a poll returns a different book, grown by a quarter (up to the ceiling) when it returns the same one.
+ * Churning books are polled fast, idle ones back off and leave the request budget to the others.
+ * <p>
+ * Not thread-safe: owned by the market's poller.
+ */
+@Getter
+public class AdaptivePollRate {
+
+    private final long floorMs;
+    private final long ceilingMs;
+    private volatile long intervalMs;
+    private long changedCount;
+    private long unchangedCount;
+
+    /**
+     * Starts at the floor, so the first books arrive quickly.
+     */
+    public AdaptivePollRate(long floorMs, long ceilingMs) {
+        this.ceilingMs = ceilingMs;
+        this.floorMs = Math.min(floorMs, ceilingMs);
+        this.intervalMs = this.floorMs;
+    }
+
+    /**
+     * @param changed whether the poll returned a different book than the one before
+     * @return interval until the next poll
+     */
+    public long update(boolean changed) {
+        if (changed) {
+            changedCount++;
+            intervalMs = Math.max(floorMs, intervalMs / 2);
+        } else {
+            unchangedCount++;
+            intervalMs = Math.min(ceilingMs, intervalMs + Math.max(1L, intervalMs / 4));
+        }
+        return intervalMs;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mmorrell.marketdata;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how far behind the published book is: the age of its older side since receipt, and that side's slot
+ * lag against the highest slot seen from any source (the cluster tip). A book past either bound is stale and must
+ * not be quoted from, however fresh its other side is.
+ * <p>
+ * The last measurements are kept for the status endpoint.
+ */
+@Getter
+public class BookStaleness {
+
+    private final long maxAgeNanos;
+    private final long maxSlotLag;
+    private final AtomicLong clusterSlot = new AtomicLong(-1L);
+    private volatile long lastAgeNanos;
+    private volatile long lastSlotLag;
+    private volatile boolean stale;
+    private final AtomicLong staleEpisodes = new AtomicLong();
+
+    /**
+     * @param maxSlotLag 0 to only check age
+     */
+    public BookStaleness(long maxAgeMs, long maxSlotLag) {
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        this.maxSlotLag = maxSlotLag;
+    }
+
+    /**
+     * Moves the cluster tip forward, older slots are ignored.
+     */
+    public void observeSlot(long slot) {
+        clusterSlot.accumulateAndGet(slot, Math::max);
+    }
+
+    /**
+     * @param nowNanos same time source as the snapshot's receive times
+     * @return true if the snapshot is too old or too far behind the tip. Incomplete snapshots aren't quoted from
+     * anyway, so they never count as stale
+     */
+    public boolean check(MarketSnapshot snapshot, long nowNanos) {
+        if (!snapshot.isComplete()) {
+            return false;
+        }
+        long ageNanos = nowNanos - snapshot.getOldestReceivedNanos();
+        long slotLag = Math.max(0L, clusterSlot.get() - snapshot.getOldestSlot());
+        boolean isStale = ageNanos > maxAgeNanos || (maxSlotLag > 0 && slotLag > maxSlotLag);
+        if (isStale && !stale) {
+            staleEpisodes.incrementAndGet();
+        }
+        lastAgeNanos = ageNanos;
+        lastSlotLag = slotLag;
+        stale = isStale;
+        return isStale;
+    }
+
+    public long getLastAgeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(lastAgeNanos);
+    }
+
+    public long getClusterSlot() {
+        return clusterSlot.get();
+    }
+
+    public long getStaleEpisodes() {
+        return staleEpisodes.get();
+    }
+}
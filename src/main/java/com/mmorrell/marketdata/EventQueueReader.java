@@ -0,0 +1,168 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.marketdata.book.MarketLots;
+import com.mmorrell.marketdata.book.SlabView;
+import com.mmorrell.serum.model.Market;
+import lombok.extern.slf4j.Slf4j;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Incremental event queue reader. Remembers the sequence number of the last read and only decodes events pushed
+ * since then, handing each one to the listeners as a {@link MarketEvent}, with our own open orders account's
+ * events flagged.
+ * <p>
+ * Events stay in the ring buffer after they are consumed, until overwritten, so nothing is lost between reads
+ * unless more than a full queue of events was pushed in between; those are counted as missed.
+ * The first read only sets the starting point.
+ */
+@Slf4j
+public class EventQueueReader {
+
+    // Header: 5 bytes "serum", 8 bytes account flags, then u32 head, count and seqNum each padded to 8 bytes
+    private static final int HEAD_OFFSET = 13;
+    private static final int COUNT_OFFSET = 21;
+    private static final int SEQ_NUM_OFFSET = 29;
+    private static final int HEADER_SIZE = 37;
+    private static final int EVENT_SIZE = 88;
+
+    // Event relative offsets
+    private static final int OPEN_ORDERS_SLOT_OFFSET = 1;
+    private static final int NATIVE_QUANTITY_RELEASED_OFFSET = 8;
+    private static final int NATIVE_QUANTITY_PAID_OFFSET = 16;
+    private static final int NATIVE_FEE_OR_REBATE_OFFSET = 24;
+    private static final int PRICE_OFFSET = 40;   // upper 64 bits of the u128 order id
+    private static final int OWNER_OFFSET = 48;
+    private static final int CLIENT_ORDER_ID_OFFSET = 80;
+
+    private static final int FILL_FLAG = 1;
+    private static final int OUT_FLAG = 2;
+    private static final int BID_FLAG = 4;
+    private static final int MAKER_FLAG = 8;
+
+    private final MarketLots lots;
+    private final double baseMultiplier;
+    private final double quoteMultiplier;
+    private final long[] self;
+    private final List<Consumer<MarketEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong missedEvents = new AtomicLong();
+
+    private long lastSeqNum = -1L;
+    private long lastSlot = -1L;
+
+    public EventQueueReader(Market market, PublicKey openOrders) {
+        this.lots = MarketLots.forMarket(market);
+        this.baseMultiplier = Math.pow(10, market.getBaseDecimals());
+        this.quoteMultiplier = Math.pow(10, market.getQuoteDecimals());
+        this.self = SlabView.ownerWords(openOrders);
+    }
+
+    public void addListener(Consumer<MarketEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Decodes events pushed since the previous read. Reads from an older slot than the previous one are ignored.
+     *
+     * @return number of new events published
+     */
+    public synchronized int read(byte[] data, long slot) {
+        if (slot < lastSlot) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        long head = Integer.toUnsignedLong(buffer.getInt(HEAD_OFFSET));
+        long count = Integer.toUnsignedLong(buffer.getInt(COUNT_OFFSET));
+        long seqNum = Integer.toUnsignedLong(buffer.getInt(SEQ_NUM_OFFSET));
+        long capacity = (data.length - HEADER_SIZE) / EVENT_SIZE;
+        lastSlot = slot;
+
+        if (lastSeqNum < 0) {
+            lastSeqNum = seqNum;
+            return 0;
+        }
+        // seqNum is a wrapping u32
+        long newEvents = (seqNum - lastSeqNum) & 0xFFFFFFFFL;
+        lastSeqNum = seqNum;
+        if (newEvents > capacity) {
+            missedEvents.addAndGet(newEvents - capacity);
+            log.debug("Event queue overran between reads, missed " + (newEvents - capacity));
+            newEvents = capacity;
+        }
+
+        // Oldest new event first. The newest event sits just before head + count.
+        for (long back = newEvents; back > 0; back--) {
+            int index = (int) Math.floorMod(head + count - back, capacity);
+            MarketEvent event = decode(buffer, HEADER_SIZE + (index * EVENT_SIZE), (seqNum - back) & 0xFFFFFFFFL,
+                    slot);
+            listeners.forEach(listener -> listener.accept(event));
+        }
+        return (int) newEvents;
+    }
+
+    public long getMissedEvents() {
+        return missedEvents.get();
+    }
+
+    private MarketEvent decode(ByteBuffer buffer, int offset, long seqNum, long slot) {
+        int flags = buffer.get(offset);
+        boolean fill = (flags & FILL_FLAG) != 0;
+        boolean bid = (flags & BID_FLAG) != 0;
+        boolean maker = (flags & MAKER_FLAG) != 0;
+        long released = buffer.getLong(offset + NATIVE_QUANTITY_RELEASED_OFFSET);
+        long paid = buffer.getLong(offset + NATIVE_QUANTITY_PAID_OFFSET);
+        long feeOrRebate = buffer.getLong(offset + NATIVE_FEE_OR_REBATE_OFFSET);
+        long priceLots = buffer.getLong(offset + PRICE_OFFSET);
+
+        float floatPrice;
+        float floatQuantity;
+        if (fill) {
+            // Same as serum-ts decodeFill: undo the fee to get the execution price
+            long baseNative = bid ? released : paid;
+            long quoteBeforeFees = bid
+                    ? (maker ? paid + feeOrRebate : paid - feeOrRebate)
+                    : (maker ? released - feeOrRebate : released + feeOrRebate);
+            floatPrice = baseNative == 0 ? 0f
+                    : (float) ((quoteBeforeFees * baseMultiplier) / (quoteMultiplier * baseNative));
+            floatQuantity = (float) (baseNative / baseMultiplier);
+        } else {
+            // Outs release quote for bids, base for asks
+            floatPrice = lots.priceToFloat(priceLots);
+            floatQuantity = bid
+                    ? (floatPrice == 0f ? 0f : (float) (released / quoteMultiplier / floatPrice))
+                    : (float) (released / baseMultiplier);
+        }
+
+        byte[] owner = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        buffer.get(offset + OWNER_OFFSET, owner, 0, owner.length);
+        boolean ours = buffer.getLong(offset + OWNER_OFFSET) == self[0]
+                && buffer.getLong(offset + OWNER_OFFSET + 8) == self[1]
+                && buffer.getLong(offset + OWNER_OFFSET + 16) == self[2]
+                && buffer.getLong(offset + OWNER_OFFSET + 24) == self[3];
+
+        return MarketEvent.builder()
+                .seqNum(seqNum)
+                .slot(slot)
+                .fill(fill)
+                .out((flags & OUT_FLAG) != 0)
+                .bid(bid)
+                .maker(maker)
+                .ours(ours)
+                .openOrders(new PublicKey(owner))
+                .openOrdersSlot(buffer.get(offset + OPEN_ORDERS_SLOT_OFFSET) & 0xFF)
+                .clientOrderId(buffer.getLong(offset + CLIENT_ORDER_ID_OFFSET))
+                .priceLots(priceLots)
+                .nativeQuantityReleased(released)
+                .nativeQuantityPaid(paid)
+                .nativeFeeOrRebate(feeOrRebate)
+                .floatPrice(floatPrice)
+                .floatQuantity(floatQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,363 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.RpcRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data RPC client that hedges reads across several endpoints. Each call goes to the currently fastest endpoint;
+ * if it hasn't answered within the hedge delay (p90 of that endpoint's recent latency) the next endpoint is
+ * tried too, and the first good response wins. A failed request moves on to the next endpoint immediately.
+ * <p>
+ * Every RpcApi method goes through {@link #call}, so this drops in wherever the {@code data} client is used.
+ * Hot reads use {@link #callRaw} instead, which streams the response into a decoder rather than binding it to maps.
+ * Losing requests are left to finish so their latency still feeds the stats.
+ */
+@Slf4j
+public class HedgedRpcClient extends RpcClient {
+
+    private static final long DEFAULT_HEDGE_DELAY_MS = 100L;
+    private static final long MIN_HEDGE_DELAY_MS = 10L;
+    private static final int MIN_SAMPLES_FOR_HEDGE_DELAY = 20;
+    private static final int MAX_CONSECUTIVE_ERRORS = 3;
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final long maxHedgeDelayMs;
+    private final ThreadLocal<String> lastEndpoint = new ThreadLocal<>();
+    private final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "hedged-rpc");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HedgedRpcClient(List<String> urls, int readTimeoutMs, int connectTimeoutMs, int writeTimeoutMs) {
+        super(urls.get(0), readTimeoutMs, connectTimeoutMs, writeTimeoutMs);
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String url : urls) {
+            endpoints.add(new Endpoint(url, new RpcClient(url, readTimeoutMs, connectTimeoutMs, writeTimeoutMs),
+                    httpClient, objectMapper));
+        }
+        this.maxHedgeDelayMs = readTimeoutMs;
+    }
+
+    @Override
+    public <T> T call(String method, List<Object> params, Class<T> clazz) throws RpcException {
+        return hedge(method, endpoint -> endpoint.call(method, params, clazz));
+    }
+
+    /**
+     * Same as {@link #call}, hedged the same way, but the response body is parsed as it streams in and its
+     * {@code result} handed to {@code decoder}: no maps and no intermediate strings.
+     */
+    public <T> T callRaw(String method, List<Object> params, ResultDecoder<T> decoder) throws RpcException {
+        return hedge(method, endpoint -> endpoint.callRaw(method, params, decoder));
+    }
+
+    private <T> T hedge(String method, EndpointCall<T> call) throws RpcException {
+        if (endpoints.size() == 1) {
+            Endpoint endpoint = endpoints.get(0);
+            T result = call.call(endpoint);
+            endpoint.wins.incrementAndGet();
+            lastEndpoint.set(endpoint.url);
+            return result;
+        }
+        List<Endpoint> ranked = rankedEndpoints();
+        ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+        Map<Future<T>, Endpoint> inFlight = new LinkedHashMap<>();
+        long hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(ranked.get(0).getHedgeDelayMs(maxHedgeDelayMs));
+        int next = 0;
+        Throwable lastError = null;
+
+        inFlight.put(completionService.submit(() -> call.call(ranked.get(0))), ranked.get(0));
+        next++;
+        try {
+            while (!inFlight.isEmpty()) {
+                Future<T> done = next < ranked.size()
+                        ? completionService.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS)
+                        : completionService.take();
+                if (done == null) {
+                    // Primary is slow, hedge to the next endpoint
+                    Endpoint backup = ranked.get(next++);
+                    inFlight.put(completionService.submit(() -> call.call(backup)), backup);
+                    continue;
+                }
+                Endpoint endpoint = inFlight.remove(done);
+                try {
+                    T result = done.get();
+                    endpoint.wins.incrementAndGet();
+                    lastEndpoint.set(endpoint.url);
+                    return result;
+                } catch (ExecutionException ex) {
+                    lastError = ex.getCause();
+                    // Not an endpoint failure, don't hide it behind the others
+                    if (lastError instanceof Error) {
+                        throw (Error) lastError;
+                    }
+                    if (next < ranked.size()) {
+                        Endpoint backup = ranked.get(next++);
+                        inFlight.put(completionService.submit(() -> call.call(backup)), backup);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted waiting for " + method);
+        }
+        if (lastError instanceof RpcException) {
+            throw (RpcException) lastError;
+        }
+        RpcException failure = new RpcException(method + " failed on all endpoints: " +
+                (lastError == null ? "unknown" : lastError.getMessage()));
+        if (lastError != null) {
+            failure.initCause(lastError);
+        }
+        throw failure;
+    }
+
+    /**
+     * @return endpoints fastest first by median latency, endpoints without samples in configured order
+     */
+    private List<Endpoint> rankedEndpoints() {
+        // Keys read once up front: stable while sorting, even as other calls record latencies
+        Map<Endpoint, Long> rankingLatencyMicros = new HashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            rankingLatencyMicros.put(endpoint, endpoint.getRankingLatencyMicros());
+        }
+        List<Endpoint> ranked = new ArrayList<>(endpoints);
+        ranked.sort(Comparator.comparingLong(rankingLatencyMicros::get));
+        return ranked;
+    }
+
+    /**
+     * @return URL of the endpoint that answered this thread's last call
+     */
+    public String getLastEndpoint() {
+        String url = lastEndpoint.get();
+        return url == null ? getEndpoint() : url;
+    }
+
+    /**
+     * Per-endpoint latency percentiles, request/win/error counts and win rate, keyed by URL.
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            long requests = endpoint.requests.get();
+            long wins = endpoint.wins.get();
+            Map<String, Object> endpointStats = new LinkedHashMap<>();
+            endpointStats.put("requests", requests);
+            endpointStats.put("wins", wins);
+            endpointStats.put("errors", endpoint.errors.get());
+            endpointStats.put("winRate", requests == 0 ? 0.0 : (double) wins / requests);
+            endpointStats.put("p50Ms", endpoint.latencies.percentileMicros(0.50) / 1_000.0);
+            endpointStats.put("p90Ms", endpoint.latencies.percentileMicros(0.90) / 1_000.0);
+            endpointStats.put("p99Ms", endpoint.latencies.percentileMicros(0.99) / 1_000.0);
+            endpointStats.put("hedgeDelayMs", endpoint.getHedgeDelayMs(maxHedgeDelayMs));
+            stats.put(endpoint.url, endpointStats);
+        }
+        return stats;
+    }
+
+    /**
+     * Decodes the {@code result} of a JSON-RPC response. Called with the parser on the result's first token, and
+     * must leave it on the result's last token. Runs on hedging threads, concurrently for one call.
+     */
+    @FunctionalInterface
+    public interface ResultDecoder<T> {
+        T decode(JsonParser parser) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EndpointCall<T> {
+        T call(Endpoint endpoint) throws RpcException;
+    }
+
+    @FunctionalInterface
+    private interface TimedCall<T> {
+        T call() throws RpcException;
+    }
+
+    private static class Endpoint {
+        private final String url;
+        private final RpcClient client;
+        private final OkHttpClient httpClient;
+        private final ObjectMapper objectMapper;
+        private final LatencyWindow latencies = new LatencyWindow(256);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong wins = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicInteger consecutiveErrors = new AtomicInteger();
+
+        private Endpoint(String url, RpcClient client, OkHttpClient httpClient, ObjectMapper objectMapper) {
+            this.url = url;
+            this.client = client;
+            this.httpClient = httpClient;
+            this.objectMapper = objectMapper;
+        }
+
+        private <T> T call(String method, List<Object> params, Class<T> clazz) throws RpcException {
+            return timed(() -> client.call(method, params, clazz));
+        }
+
+        private <T> T callRaw(String method, List<Object> params, ResultDecoder<T> decoder) throws RpcException {
+            return timed(() -> post(method, params, decoder));
+        }
+
+        private <T> T timed(TimedCall<T> call) throws RpcException {
+            requests.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                T result = call.call();
+                latencies.record((System.nanoTime() - start) / 1_000L);
+                consecutiveErrors.set(0);
+                return result;
+            } catch (RpcException | RuntimeException ex) {
+                errors.incrementAndGet();
+                consecutiveErrors.incrementAndGet();
+                log.debug("Data RPC error from " + url + ": " + ex.getMessage());
+                throw ex;
+            }
+        }
+
+        private <T> T post(String method, List<Object> params, ResultDecoder<T> decoder) throws RpcException {
+            try {
+                Request request = new Request.Builder()
+                        .url(url)
+                        .post(RequestBody.create(objectMapper.writeValueAsBytes(new RpcRequest(method, params)), JSON))
+                        .build();
+                try (Response response = httpClient.newCall(request).execute()) {
+                    if (!response.isSuccessful()) {
+                        throw new RpcException(method + " returned HTTP " + response.code());
+                    }
+                    try (JsonParser parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+                        return decodeResponse(parser, decoder);
+                    }
+                }
+            } catch (IOException ex) {
+                RpcException failure = new RpcException(method + " failed: " + ex.getMessage());
+                failure.initCause(ex);
+                throw failure;
+            }
+        }
+
+        // {"jsonrpc":"2.0","result":...,"id":...} or {..., "error":{"code":...,"message":...}}
+        private static <T> T decodeResponse(JsonParser parser, ResultDecoder<T> decoder)
+                throws IOException, RpcException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RpcException("RPC response isn't an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("result".equals(field) && value != JsonToken.VALUE_NULL) {
+                    return decoder.decode(parser);
+                } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+                    throw new RpcException(errorMessage(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            throw new RpcException("RPC response has no result");
+        }
+
+        private static String errorMessage(JsonParser parser) throws IOException {
+            String message = "unknown error";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean isMessage = "message".equals(parser.currentName());
+                if (parser.nextToken() == JsonToken.VALUE_STRING && isMessage) {
+                    message = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return message;
+        }
+
+        private long getHedgeDelayMs(long maxHedgeDelayMs) {
+            if (latencies.size() < MIN_SAMPLES_FOR_HEDGE_DELAY) {
+                return DEFAULT_HEDGE_DELAY_MS;
+            }
+            long p90Ms = latencies.percentileMicros(0.90) / 1_000L;
+            return Math.max(MIN_HEDGE_DELAY_MS, Math.min(p90Ms, maxHedgeDelayMs));
+        }
+
+        private long getRankingLatencyMicros() {
+            // Erroring endpoints sort last until a hedge or failover succeeds on them again
+            if (latencies.size() == 0 || consecutiveErrors.get() >= MAX_CONSECUTIVE_ERRORS) {
+                return Long.MAX_VALUE;
+            }
+            return latencies.percentileMicros(0.50);
+        }
+    }
+
+    /**
+     * Ring buffer of the most recent latency samples, in microseconds. Percentiles share one sorted copy, made
+     * again only once new samples have been recorded.
+     */
+    private static class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int position;
+        private long[] sorted = new long[0];
+        private boolean sortedStale;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long micros) {
+            samples[position] = micros;
+            position = (position + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sortedStale = true;
+        }
+
+        private synchronized int size() {
+            return count;
+        }
+
+        private synchronized long percentileMicros(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            if (sortedStale) {
+                sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                sortedStale = false;
+            }
+            return sorted[(int) Math.min(count - 1, Math.floor(percentile * count))];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.mmorrell.marketdata;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * Raw account data for one market, all read at the same context slot. Accounts that don't exist are null.
+ */
+@Getter
+public class MarketAccounts {
+
+    // SPL token account: mint (32), owner (32), then the u64 amount
+    private static final int TOKEN_AMOUNT_OFFSET = 64;
+
+    private final long slot;
+    private final long receivedNanos;
+    /**
+     * RPC endpoint that served the read.
+     */
+    private final String endpoint;
+    private final byte[] bids;
+    private final byte[] asks;
+    private final byte[] eventQueue;
+    private final byte[] openOrders;
+    private final byte[] baseWallet;
+    private final byte[] quoteWallet;
+
+    public MarketAccounts(long slot, long receivedNanos, String endpoint, byte[] bids, byte[] asks,
+                          byte[] eventQueue, byte[] openOrders, byte[] baseWallet, byte[] quoteWallet) {
+        this.slot = slot;
+        this.receivedNanos = receivedNanos;
+        this.endpoint = endpoint;
+        this.bids = bids;
+        this.asks = asks;
+        this.eventQueue = eventQueue;
+        this.openOrders = openOrders;
+        this.baseWallet = baseWallet;
+        this.quoteWallet = quoteWallet;
+    }
+
+    public Optional<Double> getBaseWalletBalance(int decimals) {
+        return tokenBalance(baseWallet, decimals);
+    }
+
+    public Optional<Double> getQuoteWalletBalance(int decimals) {
+        return tokenBalance(quoteWallet, decimals);
+    }
+
+    /**
+     * UI amount of an SPL token account, same as getTokenAccountBalance's uiAmount.
+     */
+    public static Optional<Double> tokenBalance(byte[] tokenAccount, int decimals) {
+        if (tokenAccount == null || tokenAccount.length < TOKEN_AMOUNT_OFFSET + 8) {
+            return Optional.empty();
+        }
+        long amount = ByteBuffer.wrap(tokenAccount).order(ByteOrder.LITTLE_ENDIAN).getLong(TOKEN_AMOUNT_OFFSET);
+        return Optional.of((double) amount / Math.pow(10, decimals));
+    }
+}
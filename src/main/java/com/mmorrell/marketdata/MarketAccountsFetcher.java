@@ -0,0 +1,75 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads bids, asks, event queue, our open orders account and both token wallets in a single
+ * getMultipleAccounts call, so every account in a {@link MarketAccounts} comes from the same context slot.
+ * <p>
+ * Calls the raw RPC method rather than {@code RpcApi#getMultipleAccounts}, which drops the context slot and
+ * skips missing accounts (shifting every index after them). The response is streamed through
+ * {@link MultipleAccountsDecoder}, so each account's bytes are decoded once, straight off the wire.
+ * <p>
+ * A books-only fetcher reads just bids and asks; the other accounts are then null.
+ */
+public class MarketAccountsFetcher {
+
+    private final HedgedRpcClient rpcClient;
+    private final List<Object> params;
+
+    public MarketAccountsFetcher(final HedgedRpcClient rpcClient,
+                                 final Market market,
+                                 final PublicKey openOrders,
+                                 final PublicKey baseWallet,
+                                 final PublicKey quoteWallet) {
+        this(rpcClient, List.of(
+                market.getBids().toBase58(),
+                market.getAsks().toBase58(),
+                market.getEventQueueKey().toBase58(),
+                openOrders.toBase58(),
+                baseWallet.toBase58(),
+                quoteWallet.toBase58()
+        ));
+    }
+
+    /**
+     * Books only.
+     */
+    public MarketAccountsFetcher(final HedgedRpcClient rpcClient, final Market market) {
+        this(rpcClient, List.of(
+                market.getBids().toBase58(),
+                market.getAsks().toBase58()
+        ));
+    }
+
+    private MarketAccountsFetcher(final HedgedRpcClient rpcClient, final List<String> accounts) {
+        this.rpcClient = rpcClient;
+        this.params = List.of(
+                accounts,
+                Map.of("encoding", "base64", "commitment", Commitment.PROCESSED.getValue())
+        );
+    }
+
+    public MarketAccounts fetch() throws RpcException {
+        MultipleAccountsDecoder.Accounts result = rpcClient.callRaw("getMultipleAccounts", params,
+                MultipleAccountsDecoder::decode);
+        long receivedNanos = System.nanoTime();
+        return new MarketAccounts(
+                result.getSlot(),
+                receivedNanos,
+                rpcClient.getLastEndpoint(),
+                result.get(0),
+                result.get(1),
+                result.get(2),
+                result.get(3),
+                result.get(4),
+                result.get(5)
+        );
+    }
+}
@@ -0,0 +1,299 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One book feed per market, shared by every strategy quoting or pricing off it, so RPC load grows with the
+ * number of distinct markets rather than the number of strategies.
+ * <p>
+ * Feeds are reference-counted by {@link Subscription}: the first subscriber to a market loads its metadata and
+ * starts the feed, the last one to close stops it. A feed polls bids and asks in one getMultipleAccounts call,
+ * at an {@link AdaptivePollRate} between the service's floor and the fastest interval any subscriber asked for,
+ * drawing on the data endpoint's {@link PollBudget}. Subscribers that publish books themselves (e.g. from a push
+ * feed) {@link #attach} instead; polls are skipped while the shared snapshot is fresher than the poll interval,
+ * whoever published it.
+ */
+@Slf4j
+public class MarketDataService implements AutoCloseable {
+
+    private final Function<PublicKey, Market> metadataLoader;
+    private final Predicate<PublicKey> metadataChanged;
+    private final Function<Market, Callable<MarketAccounts>> fetcherFactory;
+    private final ScheduledExecutorService scheduler;
+    private final long pollFloorMs;
+    @Getter
+    private final PollBudget pollBudget;
+    private final Map<PublicKey, Feed> feeds = new HashMap<>();
+
+    /**
+     * @param pollFloorMs fastest any book is polled, however much it changes
+     * @param pollBudget  request budget of the data endpoint, shared with everything else polling it
+     */
+    public MarketDataService(HedgedRpcClient rpcClient, MarketMetadataCache metadataCache, long pollFloorMs,
+                             PollBudget pollBudget) {
+        this(
+                metadataCache::load,
+                metadataCache::isChanged,
+                market -> new MarketAccountsFetcher(rpcClient, market)::fetch,
+                Executors.newScheduledThreadPool(4, runnable -> {
+                    Thread thread = new Thread(runnable, "market-data-service");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                pollFloorMs,
+                pollBudget
+        );
+    }
+
+    MarketDataService(Function<PublicKey, Market> metadataLoader,
+                      Predicate<PublicKey> metadataChanged,
+                      Function<Market, Callable<MarketAccounts>> fetcherFactory,
+                      ScheduledExecutorService scheduler,
+                      long pollFloorMs,
+                      PollBudget pollBudget) {
+        this.metadataLoader = metadataLoader;
+        this.metadataChanged = metadataChanged;
+        this.fetcherFactory = fetcherFactory;
+        this.scheduler = scheduler;
+        this.pollFloorMs = pollFloorMs;
+        this.pollBudget = pollBudget;
+    }
+
+    /**
+     * Subscribes to a market's books, kept fresh by polling at least every {@code pollIntervalMs}, faster while
+     * they keep changing.
+     */
+    public synchronized Subscription subscribe(PublicKey marketId, long pollIntervalMs) {
+        if (pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive: " + pollIntervalMs);
+        }
+        return open(marketId, pollIntervalMs);
+    }
+
+    /**
+     * Shares a market's snapshot without asking for polls: the subscriber publishes books into it itself.
+     */
+    public synchronized Subscription attach(PublicKey marketId) {
+        return open(marketId, 0L);
+    }
+
+    private Subscription open(PublicKey marketId, long pollIntervalMs) {
+        Feed feed = feeds.get(marketId);
+        if (feed == null) {
+            Market market = metadataLoader.apply(marketId);
+            feed = new Feed(marketId, market, fetcherFactory.apply(market));
+            feeds.put(marketId, feed);
+            log.info("Market data feed started: " + marketId.toBase58());
+        }
+        Subscription subscription = new Subscription(feed, pollIntervalMs);
+        feed.subscriptions.add(subscription);
+        feed.reschedule();
+        return subscription;
+    }
+
+    private synchronized void close(Subscription subscription) {
+        Feed feed = subscription.feed;
+        if (!feed.subscriptions.remove(subscription)) {
+            return;
+        }
+        if (feed.subscriptions.isEmpty()) {
+            feed.stop();
+            feeds.remove(feed.marketId);
+            log.info("Market data feed stopped: " + feed.marketId.toBase58());
+        } else {
+            feed.reschedule();
+        }
+    }
+
+    public synchronized int getFeedCount() {
+        return feeds.size();
+    }
+
+    /**
+     * @return per market: subscribers, requested and current poll interval, polls, skipped polls, polls denied
+     * by the budget and errors
+     */
+    public synchronized Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new HashMap<>();
+        feeds.forEach((marketId, feed) -> {
+            AdaptivePollRate rate = feed.pollRate;
+            stats.put(marketId.toBase58(), Map.of(
+                    "subscribers", feed.subscriptions.size(),
+                    "pollIntervalMs", feed.pollIntervalMs,
+                    "currentIntervalMs", rate != null ? rate.getIntervalMs() : 0L,
+                    "polls", feed.pollCount.get(),
+                    "skippedPolls", feed.skippedCount.get(),
+                    "budgetDenied", feed.budgetDeniedCount.get(),
+                    "errors", feed.errorCount.get(),
+                    "slot", feed.snapshot.get().getSlot()
+            ));
+        });
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() {
+        feeds.values().forEach(Feed::stop);
+        feeds.clear();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * A strategy's handle on a shared feed. Read {@link #getSnapshot()} in place, close when done.
+     */
+    @Getter
+    public class Subscription implements AutoCloseable {
+        @Getter(AccessLevel.NONE)
+        private final Feed feed;
+        /**
+         * 0 when attached.
+         */
+        private final long pollIntervalMs;
+
+        private Subscription(Feed feed, long pollIntervalMs) {
+            this.feed = feed;
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public PublicKey getMarketId() {
+            return feed.marketId;
+        }
+
+        /**
+         * @return market metadata, shared: don't reload books into it
+         */
+        public Market getMarket() {
+            return feed.market;
+        }
+
+        public MarketSnapshotReference getSnapshot() {
+            return feed.snapshot;
+        }
+
+        /**
+         * @return true once the market's metadata changed on chain: {@link #getMarket()} is out of date, and so is
+         * everything built from it, until restart
+         */
+        public boolean isMetadataChanged() {
+            return metadataChanged.test(feed.marketId);
+        }
+
+        @Override
+        public void close() {
+            MarketDataService.this.close(this);
+        }
+    }
+
+    private class Feed {
+        private final PublicKey marketId;
+        private final Market market;
+        private final Callable<MarketAccounts> fetcher;
+        private final MarketSnapshotReference snapshot = new MarketSnapshotReference();
+        private final List<Subscription> subscriptions = new ArrayList<>();
+        private final AtomicLong pollCount = new AtomicLong();
+        private final AtomicLong skippedCount = new AtomicLong();
+        private final AtomicLong budgetDeniedCount = new AtomicLong();
+        private final AtomicLong errorCount = new AtomicLong();
+        // Slowest the book may be polled: the fastest interval any subscriber asked for, 0 when not polled
+        private volatile long pollIntervalMs = 0L;
+        private volatile AdaptivePollRate pollRate;
+        private ScheduledFuture<?> poller;
+
+        private Feed(PublicKey marketId, Market market, Callable<MarketAccounts> fetcher) {
+            this.marketId = marketId;
+            this.market = market;
+            this.fetcher = fetcher;
+        }
+
+        /**
+         * Restarts polling between the floor and the fastest requested interval, or stops it if every subscriber
+         * is attached.
+         */
+        private synchronized void reschedule() {
+            long interval = subscriptions.stream()
+                    .mapToLong(Subscription::getPollIntervalMs)
+                    .filter(ms -> ms > 0)
+                    .min()
+                    .orElse(0L);
+            if (interval == pollIntervalMs) {
+                return;
+            }
+            stop();
+            pollIntervalMs = interval;
+            if (interval > 0) {
+                pollRate = new AdaptivePollRate(pollFloorMs, interval);
+                poller = scheduler.schedule(this::poll, 0L, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized void stop() {
+            if (poller != null) {
+                poller.cancel(false);
+                poller = null;
+            }
+            pollRate = null;
+            pollIntervalMs = 0L;
+        }
+
+        private void poll() {
+            AdaptivePollRate rate = pollRate;
+            if (rate == null) {
+                return;
+            }
+            long nextPollMs = pollOnce(rate);
+            synchronized (this) {
+                // Unless stopped or restarted meanwhile
+                if (pollRate == rate) {
+                    poller = scheduler.schedule(this::poll, nextPollMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        /**
+         * @return delay until the next poll
+         */
+        private long pollOnce(AdaptivePollRate rate) {
+            MarketSnapshot current = snapshot.get();
+            // Skipped only while both sides were pushed recently
+            if (current.isComplete() && System.nanoTime() - current.getOldestReceivedNanos() <
+                    TimeUnit.MILLISECONDS.toNanos(rate.getIntervalMs())) {
+                skippedCount.incrementAndGet();
+                return rate.getIntervalMs();
+            }
+            if (!pollBudget.tryAcquire()) {
+                budgetDeniedCount.incrementAndGet();
+                return rate.getFloorMs();
+            }
+            try {
+                MarketAccounts accounts = fetcher.call();
+                pollCount.incrementAndGet();
+                if (accounts.getBids() != null && accounts.getAsks() != null) {
+                    snapshot.publish(accounts.getBids(), accounts.getAsks(), accounts.getSlot(),
+                            accounts.getReceivedNanos());
+                }
+                return rate.update(!snapshot.get().sameBooks(current));
+            } catch (Exception ex) {
+                errorCount.incrementAndGet();
+                log.debug("Book poll error for " + marketId.toBase58() + ": " + ex.getClass().getName());
+                return rate.getIntervalMs();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mmorrell.marketdata;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.p2p.solanaj.core.PublicKey;
+
+/**
+ * A fill or out from a market's event queue, as decoded by {@link EventQueueReader}.
+ */
+@Getter
+@Builder
+public class MarketEvent {
+
+    /**
+     * Event queue sequence number, unique per market (wraps at 2^32).
+     */
+    private final long seqNum;
+    /**
+     * Context slot of the read that first saw this event.
+     */
+    private final long slot;
+    private final boolean fill;
+    private final boolean out;
+    private final boolean bid;
+    private final boolean maker;
+    /**
+     * True if the event belongs to our open orders account.
+     */
+    private final boolean ours;
+    private final PublicKey openOrders;
+    private final int openOrdersSlot;
+    private final long clientOrderId;
+    /**
+     * Limit price of the order, in lots (upper 64 bits of the order id).
+     */
+    private final long priceLots;
+    private final long nativeQuantityReleased;
+    private final long nativeQuantityPaid;
+    private final long nativeFeeOrRebate;
+    /**
+     * Execution price before fees for fills, the order's limit price for outs.
+     */
+    private final float floatPrice;
+    /**
+     * Base quantity filled, or released back for outs.
+     */
+    private final float floatQuantity;
+}
@@ -0,0 +1,219 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import com.mmorrell.serum.model.MarketBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of static market metadata (addresses, vaults, lot sizes, decimals, vault signer nonce), one
+ * small binary file per market id. A cache hit builds the {@link Market} without any RPC call and re-reads the
+ * market in the background. If anything changed, the file is rewritten and the market is flagged
+ * ({@link #isChanged}): everything built from the cached metadata is wrong, so its users must stop until
+ * restarted. The loaded market is never modified.
+ * <p>
+ * Markets loaded here carry no order books, those come from the regular book fetches.
+ */
+@Slf4j
+public class MarketMetadataCache {
+
+    private static final int MAGIC = 0x4F424D43;   // "OBMC"
+    private static final byte VERSION = 1;
+    private static final int KEY_COUNT = 9;
+    // magic, version, 9 keys, nonce, lot sizes, fee rate, decimals, crc
+    private static final int FILE_SIZE = 4 + 1 + (KEY_COUNT * PublicKey.PUBLIC_KEY_LENGTH) + (4 * 8) + 2 + 8;
+
+    private final Function<PublicKey, Market> marketLoader;
+    private final Path directory;
+    private final Executor validationExecutor;
+    private final Set<PublicKey> changed = ConcurrentHashMap.newKeySet();
+
+    public MarketMetadataCache(RpcClient rpcClient, Path directory) {
+        this(
+                marketId -> new MarketBuilder()
+                        .setClient(rpcClient)
+                        .setPublicKey(marketId)
+                        .setRetrieveOrderBooks(false)
+                        .build(),
+                directory,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "market-metadata-validation");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+        );
+    }
+
+    MarketMetadataCache(Function<PublicKey, Market> marketLoader, Path directory, Executor validationExecutor) {
+        this.marketLoader = marketLoader;
+        this.directory = directory;
+        this.validationExecutor = validationExecutor;
+    }
+
+    /**
+     * Returns the cached market if there is a valid entry, validating it in the background, otherwise reads
+     * the market over RPC and caches it.
+     */
+    public Market load(PublicKey marketId) {
+        Market cached = read(marketId);
+        if (cached != null) {
+            log.info("Market metadata cache hit: " + marketId.toBase58());
+            validationExecutor.execute(() -> validate(marketId, cached));
+            return cached;
+        }
+
+        log.info("Market metadata cache miss: " + marketId.toBase58());
+        Market market = marketLoader.apply(marketId);
+        write(marketId, market);
+        return market;
+    }
+
+    private void validate(PublicKey marketId, Market cached) {
+        try {
+            Market latest = marketLoader.apply(marketId);
+            byte[] latestBytes = encode(latest);
+            if (Arrays.equals(encode(cached), latestBytes)) {
+                return;
+            }
+            log.error("Cached market metadata changed on chain, restart to use it: " + marketId.toBase58());
+            write(marketId, latest);
+            changed.add(marketId);
+        } catch (Exception e) {
+            log.warn("Unable to validate cached market metadata for " + marketId.toBase58() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true once background validation found the market's metadata changed since it was cached
+     */
+    public boolean isChanged(PublicKey marketId) {
+        return changed.contains(marketId);
+    }
+
+    private Market read(PublicKey marketId) {
+        Path file = file(marketId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            Market market = decode(Files.readAllBytes(file));
+            if (market == null || !marketId.equals(market.getOwnAddress())) {
+                log.warn("Ignoring invalid market metadata cache file: " + file);
+                return null;
+            }
+            return market;
+        } catch (IOException e) {
+            log.warn("Unable to read market metadata cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(PublicKey marketId, Market market) {
+        Path file = file(marketId);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, marketId.toBase58(), ".tmp");
+            Files.write(temp, encode(market));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Only costs a round trip on the next start
+            log.warn("Unable to write market metadata cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private Path file(PublicKey marketId) {
+        return directory.resolve(marketId.toBase58() + ".bin");
+    }
+
+    static byte[] encode(Market market) {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        for (PublicKey key : keys(market)) {
+            buffer.put(key.toByteArray());
+        }
+        buffer.putLong(market.getVaultSignerNonce());
+        buffer.putLong(market.getBaseLotSize());
+        buffer.putLong(market.getQuoteLotSize());
+        buffer.putLong(market.getFeeRateBps());
+        buffer.put(market.getBaseDecimals());
+        buffer.put(market.getQuoteDecimals());
+        buffer.putLong(checksum(buffer.array(), buffer.position()));
+        return buffer.array();
+    }
+
+    /**
+     * @return the decoded market, or null if the data is truncated, corrupt or from another version
+     */
+    static Market decode(byte[] data) {
+        if (data.length != FILE_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION
+                || buffer.getLong(FILE_SIZE - 8) != checksum(data, FILE_SIZE - 8)) {
+            return null;
+        }
+
+        PublicKey[] keys = new PublicKey[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            // PublicKey keeps the array, so one per key
+            byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+            buffer.get(key);
+            keys[i] = new PublicKey(key);
+        }
+        Market market = new Market();
+        market.setOwnAddress(keys[0]);
+        market.setBaseMint(keys[1]);
+        market.setQuoteMint(keys[2]);
+        market.setBaseVault(keys[3]);
+        market.setQuoteVault(keys[4]);
+        market.setRequestQueue(keys[5]);
+        market.setEventQueueKey(keys[6]);
+        market.setBids(keys[7]);
+        market.setAsks(keys[8]);
+        market.setVaultSignerNonce(buffer.getLong());
+        market.setBaseLotSize(buffer.getLong());
+        market.setQuoteLotSize(buffer.getLong());
+        market.setFeeRateBps(buffer.getLong());
+        market.setBaseDecimals(buffer.get());
+        market.setQuoteDecimals(buffer.get());
+        return market;
+    }
+
+    private static PublicKey[] keys(Market market) {
+        return new PublicKey[]{
+                market.getOwnAddress(),
+                market.getBaseMint(),
+                market.getQuoteMint(),
+                market.getBaseVault(),
+                market.getQuoteVault(),
+                market.getRequestQueue(),
+                market.getEventQueueKey(),
+                market.getBids(),
+                market.getAsks()
+        };
+    }
+
+    private static long checksum(byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,105 @@
+package com.mmorrell.marketdata;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Immutable view of both sides of a market: the raw bids and asks slabs (read-only, little-endian), the
+ * context slot each side was read at, and when each side was received.
+ * <p>
+ * Built by the fetcher/feed and published whole through {@link MarketSnapshotReference}, so a reader always
+ * sees bids and asks that belonged together, without locking or copying.
+ */
+@Getter
+public class MarketSnapshot {
+
+    private static final MarketSnapshot EMPTY = new MarketSnapshot(null, -1L, 0L, null, -1L, 0L);
+
+    private final ByteBuffer bids;
+    private final long bidsSlot;
+    private final long bidsReceivedNanos;
+    private final ByteBuffer asks;
+    private final long asksSlot;
+    private final long asksReceivedNanos;
+
+    private MarketSnapshot(ByteBuffer bids, long bidsSlot, long bidsReceivedNanos,
+                           ByteBuffer asks, long asksSlot, long asksReceivedNanos) {
+        this.bids = bids;
+        this.bidsSlot = bidsSlot;
+        this.bidsReceivedNanos = bidsReceivedNanos;
+        this.asks = asks;
+        this.asksSlot = asksSlot;
+        this.asksReceivedNanos = asksReceivedNanos;
+    }
+
+    public static MarketSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static MarketSnapshot of(byte[] bids, byte[] asks, long slot, long receivedNanos) {
+        return new MarketSnapshot(readOnly(bids), slot, receivedNanos, readOnly(asks), slot, receivedNanos);
+    }
+
+    MarketSnapshot withBids(byte[] bids, long slot, long receivedNanos) {
+        return new MarketSnapshot(readOnly(bids), slot, receivedNanos, asks, asksSlot, asksReceivedNanos);
+    }
+
+    MarketSnapshot withAsks(byte[] asks, long slot, long receivedNanos) {
+        return new MarketSnapshot(bids, bidsSlot, bidsReceivedNanos, readOnly(asks), slot, receivedNanos);
+    }
+
+    /**
+     * @return true once both sides have been received
+     */
+    public boolean isComplete() {
+        return bids != null && asks != null;
+    }
+
+    /**
+     * @return the newest slot across both sides
+     */
+    public long getSlot() {
+        return Math.max(bidsSlot, asksSlot);
+    }
+
+    /**
+     * @return the older slot of the two sides, how far behind the book is
+     */
+    public long getOldestSlot() {
+        return Math.min(bidsSlot, asksSlot);
+    }
+
+    /**
+     * @return when the newest side was received
+     */
+    public long getReceivedNanos() {
+        return Math.max(bidsReceivedNanos, asksReceivedNanos);
+    }
+
+    /**
+     * @return when the older side was received, one fresh side doesn't make the other fresh
+     */
+    public long getOldestReceivedNanos() {
+        return Math.min(bidsReceivedNanos, asksReceivedNanos);
+    }
+
+    /**
+     * @return true if both sides were read at the same slot (always the case for polled snapshots)
+     */
+    public boolean isSlotConsistent() {
+        return bidsSlot == asksSlot;
+    }
+
+    /**
+     * @return true if both sides hold the same bytes as the other snapshot's, whatever their slots
+     */
+    public boolean sameBooks(MarketSnapshot other) {
+        return isComplete() && other.isComplete() && bids.equals(other.bids) && asks.equals(other.asks);
+    }
+
+    private static ByteBuffer readOnly(byte[] data) {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mmorrell.marketdata;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes {@link MarketSnapshot}s atomically. Readers call {@link #get()} and use the result as-is.
+ * <p>
+ * Each side only moves forward by slot: a side read at an older slot than the published one is dropped and
+ * counted, as with {@link SlotVersionedReference}.
+ */
+public class MarketSnapshotReference {
+
+    private final AtomicReference<MarketSnapshot> current = new AtomicReference<>(MarketSnapshot.empty());
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public MarketSnapshot get() {
+        return current.get();
+    }
+
+    /**
+     * Publishes both sides read together at one slot. A side older than the published one is kept as is.
+     *
+     * @return false if neither side was newer
+     */
+    public boolean publish(byte[] bids, byte[] asks, long slot, long receivedNanos) {
+        while (true) {
+            MarketSnapshot previous = current.get();
+            boolean newerBids = slot >= previous.getBidsSlot();
+            boolean newerAsks = slot >= previous.getAsksSlot();
+            MarketSnapshot next;
+            if (newerBids && newerAsks) {
+                next = MarketSnapshot.of(bids, asks, slot, receivedNanos);
+            } else if (newerBids) {
+                next = previous.withBids(bids, slot, receivedNanos);
+            } else if (newerAsks) {
+                next = previous.withAsks(asks, slot, receivedNanos);
+            } else {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            if (current.compareAndSet(previous, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Publishes a single side, e.g. from an accountSubscribe notification, keeping the other side as is.
+     *
+     * @return false if dropped as out of order
+     */
+    public boolean publishSide(boolean isBid, byte[] data, long slot, long receivedNanos) {
+        while (true) {
+            MarketSnapshot previous = current.get();
+            if (slot < (isBid ? previous.getBidsSlot() : previous.getAsksSlot())) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            MarketSnapshot next = isBid
+                    ? previous.withBids(data, slot, receivedNanos)
+                    : previous.withAsks(data, slot, receivedNanos);
+            if (current.compareAndSet(previous, next)) {
+                return true;
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -0,0 +1,108 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a getMultipleAccounts result with a streaming parser, for {@link HedgedRpcClient#callRaw}: the context
+ * slot, and each account's data base64-decoded by the parser straight from the token. No maps and no
+ * intermediate base64 strings. Stateless, so safe across concurrent hedged requests.
+ */
+public class MultipleAccountsDecoder {
+
+    private MultipleAccountsDecoder() {
+    }
+
+    /**
+     * @param parser on the result object's start
+     */
+    public static Accounts decode(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("getMultipleAccounts result isn't an object");
+        }
+        long slot = -1L;
+        List<byte[]> data = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("context".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean isSlot = "slot".equals(parser.currentName());
+                    if (parser.nextToken() == JsonToken.VALUE_NUMBER_INT && isSlot) {
+                        slot = parser.getLongValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("value".equals(field) && value == JsonToken.START_ARRAY) {
+                // Missing accounts are null and keep their index
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        data.add(decodeAccount(parser));
+                    } else {
+                        parser.skipChildren();
+                        data.add(null);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (slot < 0) {
+            throw new IOException("getMultipleAccounts result has no context slot");
+        }
+        return new Accounts(slot, data);
+    }
+
+    // data is [base64, "base64"]
+    private static byte[] decodeAccount(JsonParser parser) throws IOException {
+        byte[] data = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    data = parser.getBinaryValue(Base64Variants.MIME_NO_LINEFEEDS);
+                }
+                while (parser.currentToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    parser.nextToken();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Account data in request order, read at one context slot.
+     */
+    public static class Accounts {
+        @Getter
+        private final long slot;
+        private final List<byte[]> data;
+
+        private Accounts(long slot, List<byte[]> data) {
+            this.slot = slot;
+            this.data = data;
+        }
+
+        public int size() {
+            return data.size();
+        }
+
+        /**
+         * @return the account's data, null if it doesn't exist or wasn't returned
+         */
+        public byte[] get(int index) {
+            return index < data.size() ? data.get(index) : null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.List;
+
+/**
+ * Push-based order book feed. Subscribes to the bids and asks slab accounts via accountSubscribe and hands each
+ * notification's raw slab bytes to a {@link SlabListener} as it arrives.
+ * Polling stays the fallback: callers should only skip their reload while {@link #isLive()} is true.
+ */
+public class OrderBookWebSocketFeed extends AccountWebSocketFeed {
+
+    public OrderBookWebSocketFeed(final OkHttpClient okHttpClient,
+                                  final ObjectMapper objectMapper,
+                                  final String wsUrl,
+                                  final PublicKey bids,
+                                  final PublicKey asks,
+                                  final SlabListener listener) {
+        super(
+                okHttpClient,
+                objectMapper,
+                wsUrl,
+                "Order book",
+                List.of(bids, asks),
+                (index, data, slot) -> listener.onSlab(index == 0, data, slot)
+        );
+    }
+
+    @FunctionalInterface
+    public interface SlabListener {
+        void onSlab(boolean isBid, byte[] data, long slot);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mmorrell.marketdata;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Request budget for one RPC endpoint, as a token bucket refilled at a steady rate with a burst of a fifth of
+ * a second. Every book poller against the endpoint draws from it; a poller that finds it empty waits for its
+ * next turn instead of blocking.
+ */
+public class PollBudget {
+
+    private final double permitsPerNano;
+    private final double maxPermits;
+    private final LongSupplier nanoTime;
+    private final AtomicLong deniedCount = new AtomicLong();
+    private double permits;
+    private long lastRefillNanos;
+
+    public PollBudget(double requestsPerSecond) {
+        this(requestsPerSecond, System::nanoTime);
+    }
+
+    PollBudget(double requestsPerSecond, LongSupplier nanoTime) {
+        this.permitsPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxPermits = Math.max(1.0, requestsPerSecond / 5.0);
+        this.nanoTime = nanoTime;
+        this.permits = maxPermits;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * @return true if a request may be sent now
+     */
+    public synchronized boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        permits = Math.min(maxPermits, permits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        if (permits < 1.0) {
+            deniedCount.incrementAndGet();
+            return false;
+        }
+        permits -= 1.0;
+        return true;
+    }
+
+    public long getDeniedCount() {
+        return deniedCount.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.mmorrell.marketdata;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the latest value seen for an account, tagged with the RPC context slot it was read at.
+ * The published slot only moves forward: a response from an older slot (e.g. a slow poll finishing after a
+ * newer push update) is dropped and counted instead of overwriting fresher data.
+ */
+public class SlotVersionedReference<T> {
+
+    private final AtomicReference<Versioned<T>> current = new AtomicReference<>(new Versioned<>(null, -1L));
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @return true if published, false if dropped for being older than the current slot
+     */
+    public boolean publish(T value, long slot) {
+        Versioned<T> next = new Versioned<>(value, slot);
+        while (true) {
+            Versioned<T> previous = current.get();
+            if (slot < previous.slot) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            if (current.compareAndSet(previous, next)) {
+                return true;
+            }
+        }
+    }
+
+    public T get() {
+        return current.get().value;
+    }
+
+    /**
+     * @return slot of the published value, -1 before the first publish
+     */
+    public long getSlot() {
+        return current.get().slot;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private static final class Versioned<T> {
+        private final T value;
+        private final long slot;
+
+        private Versioned(T value, long slot) {
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.MarketSnapshot;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-term signals from the size resting in the book, taken from every order but ours:
+ * <ul>
+ *     <li>microprice: the top of book mid weighted towards the thinner side, where the price is likelier to go</li>
+ *     <li>imbalance: (bid depth - ask depth) / total depth over the top N levels, -1 to 1</li>
+ *     <li>the change of both over a short horizon</li>
+ * </ul>
+ * Computed once per indexed snapshot from the top N levels of {@link OwnerIndex}, with a fixed ring of past values
+ * for the changes: no allocation, a few hundred nanoseconds per snapshot. Owned by the quoting loop; the published
+ * values are volatile for status reads.
+ */
+public class BookSignals {
+
+    private static final int HISTORY = 256;
+
+    private final int depthLevels;
+    private final long horizonNanos;
+    // Ring of past values, oldest at tail
+    private final long[] times = new long[HISTORY];
+    private final double[] microprices = new double[HISTORY];
+    private final double[] imbalances = new double[HISTORY];
+    private int tail;
+    private int count;
+    private MarketSnapshot lastSnapshot;
+
+    @Getter
+    private volatile double mid;
+    @Getter
+    private volatile double microprice;
+    @Getter
+    private volatile double imbalance;
+    /**
+     * Microprice now minus microprice about one horizon ago (or at the oldest snapshot seen, if more recent).
+     */
+    @Getter
+    private volatile double micropriceChange;
+    @Getter
+    private volatile double imbalanceChange;
+
+    /**
+     * @param depthLevels levels per side counted in the imbalance
+     * @param horizonMs   how far back the changes look
+     */
+    public BookSignals(int depthLevels, long horizonMs) {
+        this.depthLevels = depthLevels;
+        this.horizonNanos = TimeUnit.MILLISECONDS.toNanos(horizonMs);
+    }
+
+    /**
+     * Recomputes the signals if the index holds a snapshot they haven't seen.
+     *
+     * @return true if updated
+     */
+    public boolean update(OwnerIndex index) {
+        MarketSnapshot snapshot = index.getIndexedSnapshot();
+        if (snapshot == null || snapshot == lastSnapshot) {
+            return false;
+        }
+        PriceLevelBook bids = index.getBids().getOthers();
+        PriceLevelBook asks = index.getAsks().getOthers();
+        if (bids.isEmpty() || asks.isEmpty()) {
+            return false;
+        }
+        lastSnapshot = snapshot;
+
+        double bid = bids.bestFloatPrice();
+        double ask = asks.bestFloatPrice();
+        double bidSize = bids.floatQuantityAt(0);
+        double askSize = asks.floatQuantityAt(0);
+        double currentMicroprice = (bid * askSize + ask * bidSize) / (bidSize + askSize);
+        double bidDepth = depth(bids);
+        double askDepth = depth(asks);
+        double currentImbalance = (bidDepth - askDepth) / (bidDepth + askDepth);
+
+        long now = snapshot.getReceivedNanos();
+        append(now, currentMicroprice, currentImbalance);
+        // Keep the newest value at or before the horizon as the reference, drop anything older
+        while (count > 1 && times[(tail + 1) % HISTORY] <= now - horizonNanos) {
+            tail = (tail + 1) % HISTORY;
+            count--;
+        }
+
+        mid = (bid + ask) / 2.0;
+        microprice = currentMicroprice;
+        imbalance = currentImbalance;
+        micropriceChange = currentMicroprice - microprices[tail];
+        imbalanceChange = currentImbalance - imbalances[tail];
+        return true;
+    }
+
+    /**
+     * @return how far the microprice leans from the mid, as a fraction of the mid: positive when bids are heavier
+     */
+    public double getMicropriceSkew() {
+        double currentMid = mid;
+        return currentMid > 0.0 ? (microprice - currentMid) / currentMid : 0.0;
+    }
+
+    private double depth(PriceLevelBook side) {
+        double depth = 0.0;
+        int levels = Math.min(depthLevels, side.size());
+        for (int level = 0; level < levels; level++) {
+            depth += side.floatQuantityAt(level);
+        }
+        return depth;
+    }
+
+    private void append(long time, double currentMicroprice, double currentImbalance) {
+        if (count == HISTORY) {
+            // Horizon holds more snapshots than the ring, lose the oldest
+            tail = (tail + 1) % HISTORY;
+            count--;
+        }
+        int head = (tail + count) % HISTORY;
+        times[head] = time;
+        microprices[head] = currentMicroprice;
+        imbalances[head] = currentImbalance;
+        count++;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.serum.model.Market;
+
+/**
+ * Converts a market's price and size lots to float prices and quantities without going through
+ * {@link com.mmorrell.serum.model.SerumUtils}, which recomputes the decimal multipliers on every call.
+ */
+public class MarketLots {
+
+    private final double priceMultiplier;
+    private final double quantityMultiplier;
+
+    public MarketLots(byte baseDecimals, byte quoteDecimals, long baseLotSize, long quoteLotSize) {
+        this.priceMultiplier = (quoteLotSize * Math.pow(10, baseDecimals)) / (baseLotSize * Math.pow(10, quoteDecimals));
+        this.quantityMultiplier = baseLotSize / Math.pow(10, baseDecimals);
+    }
+
+    public static MarketLots forMarket(Market market) {
+        return new MarketLots(
+                market.getBaseDecimals(),
+                market.getQuoteDecimals(),
+                market.getBaseLotSize(),
+                market.getQuoteLotSize()
+        );
+    }
+
+    public float priceToFloat(long priceLots) {
+        return (float) (priceLots * priceMultiplier);
+    }
+
+    public float quantityToFloat(long quantityLots) {
+        return (float) (quantityLots * quantityMultiplier);
+    }
+}
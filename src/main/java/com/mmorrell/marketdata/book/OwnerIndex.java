@@ -0,0 +1,168 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.MarketSnapshot;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Classifies every order of a {@link MarketSnapshot} by owner once, into price-level books per owner class:
+ * ours, everyone but us ("others"), fish, everyone but fish and us ("market"), sharps other than us, and large
+ * ASX orders. Quoting
+ * queries are then top-of-book reads or binary searches instead of repeated walks with owner list lookups.
+ * <p>
+ * {@link #update} only re-indexes when handed a different snapshot; buffers are reused, so it does not
+ * allocate. Not thread-safe: owned by the quoting loop.
+ */
+public class OwnerIndex {
+
+    @Getter
+    private final Side bids;
+    @Getter
+    private final Side asks;
+    private final long[] self;
+    private final long[][] fish;
+    private final long[] spaceMonkey;
+    private final float spaceMonkeyMinNotional;
+    private final SlabView view;
+    @Getter
+    private MarketSnapshot indexedSnapshot;
+
+    /**
+     * @param self                   our open orders account, as {@link SlabView#ownerWords}
+     * @param bidSharps              sharps tracked on the bid side
+     * @param askSharps              sharps tracked on the ask side
+     * @param spaceMonkeyMinNotional smallest ASX order (price x size) worth tracking
+     */
+    public OwnerIndex(MarketLots lots,
+                      long[] self,
+                      long[][] fish,
+                      long[][] bidSharps,
+                      long[][] askSharps,
+                      long[] spaceMonkey,
+                      float spaceMonkeyMinNotional) {
+        this.bids = new Side(true, lots, bidSharps);
+        this.asks = new Side(false, lots, askSharps);
+        this.self = self;
+        this.fish = fish;
+        this.spaceMonkey = spaceMonkey;
+        this.spaceMonkeyMinNotional = spaceMonkeyMinNotional;
+        this.view = new SlabView(lots);
+    }
+
+    /**
+     * Indexes the snapshot if it isn't the one already indexed.
+     *
+     * @return true if the snapshot is complete and both sides have orders
+     */
+    public boolean update(MarketSnapshot snapshot) {
+        if (!snapshot.isComplete()) {
+            return false;
+        }
+        if (snapshot != indexedSnapshot) {
+            index(view.wrap(snapshot.getBids()), bids);
+            index(view.wrap(snapshot.getAsks()), asks);
+            indexedSnapshot = snapshot;
+        }
+        return !bids.all.isEmpty() && !asks.all.isEmpty();
+    }
+
+    private void index(SlabView orders, Side side) {
+        side.clear();
+        while (orders.next()) {
+            long price = orders.priceLots();
+            long quantity = orders.quantityLots();
+            side.all.add(price, quantity);
+            if (orders.ownerEquals(self)) {
+                side.ours.add(price, quantity);
+                side.ourOrderCount++;
+                continue;
+            }
+            side.others.add(price, quantity);
+            if (orders.ownerIn(fish)) {
+                side.fish.add(price, quantity);
+            } else {
+                side.market.add(price, quantity);
+            }
+            if (orders.ownerIn(side.sharpOwners)) {
+                side.sharps.add(price, quantity);
+            }
+            if (orders.ownerEquals(spaceMonkey)
+                    && orders.floatQuantity() * orders.floatPrice() >= spaceMonkeyMinNotional) {
+                // One per order, each one counts separately when quoting
+                side.spaceMonkey.add(price, 1);
+            }
+        }
+    }
+
+    /**
+     * One side's owner classes, all kept best level first.
+     */
+    @Getter
+    public static class Side {
+        private final PriceLevelBook all;
+        private final PriceLevelBook ours;
+        private final PriceLevelBook others;
+        private final PriceLevelBook fish;
+        private final PriceLevelBook market;
+        private final PriceLevelBook sharps;
+        /**
+         * Quantity per level is the number of qualifying ASX orders, not their size.
+         */
+        private final PriceLevelBook spaceMonkey;
+        @Getter(AccessLevel.NONE)
+        private final long[][] sharpOwners;
+        private int ourOrderCount;
+
+        private Side(boolean isBids, MarketLots lots, long[][] sharpOwners) {
+            this.all = new PriceLevelBook(isBids, lots);
+            this.ours = new PriceLevelBook(isBids, lots);
+            this.others = new PriceLevelBook(isBids, lots);
+            this.fish = new PriceLevelBook(isBids, lots);
+            this.market = new PriceLevelBook(isBids, lots);
+            this.sharps = new PriceLevelBook(isBids, lots);
+            this.spaceMonkey = new PriceLevelBook(isBids, lots);
+            this.sharpOwners = sharpOwners;
+        }
+
+        private void clear() {
+            all.clear();
+            ours.clear();
+            others.clear();
+            fish.clear();
+            market.clear();
+            sharps.clear();
+            spaceMonkey.clear();
+            ourOrderCount = 0;
+        }
+
+        /**
+         * @return best price that isn't fish or ours, falling back to the best price overall
+         */
+        public float bestMarketPrice() {
+            return market.isEmpty() ? all.bestFloatPrice() : market.bestFloatPrice();
+        }
+
+        /**
+         * @return our best resting price, 0 if we have nothing on this side
+         */
+        public float ourBestPrice() {
+            return ours.isEmpty() ? 0f : ours.bestFloatPrice();
+        }
+
+        /**
+         * @return worst sharp price at or better than the given price, 0 if none
+         */
+        public float worstSharpAtOrBetterThan(float price) {
+            int level = sharps.countAtOrBetterThan(price) - 1;
+            return level >= 0 ? sharps.floatPriceAt(level) : 0f;
+        }
+
+        /**
+         * @return worst sharp price strictly better than the given price, 0 if none
+         */
+        public float worstSharpBetterThan(float price) {
+            int level = sharps.countBetterThan(price) - 1;
+            return level >= 0 ? sharps.floatPriceAt(level) : 0f;
+        }
+    }
+}
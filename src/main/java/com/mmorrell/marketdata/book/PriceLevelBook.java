@@ -0,0 +1,174 @@
+package com.mmorrell.marketdata.book;
+
+import java.util.Arrays;
+
+/**
+ * One side of a book aggregated by price, held in parallel {@code long[]} arrays of price lots and quantity lots,
+ * best level first. Rebuilt from each snapshot with {@link #clear()} and {@link #add}; arrays are reused, so
+ * steady-state updates do not allocate.
+ * <p>
+ * "Better" means higher for bids and lower for asks. Float lookups compare converted prices, so they agree
+ * with the float prices the strategies work in.
+ */
+public class PriceLevelBook {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final boolean bids;
+    private final MarketLots lots;
+    private long[] prices;
+    private long[] quantities;
+    private int size;
+
+    public PriceLevelBook(boolean bids, MarketLots lots) {
+        this.bids = bids;
+        this.lots = lots;
+        this.prices = new long[DEFAULT_CAPACITY];
+        this.quantities = new long[DEFAULT_CAPACITY];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds an order's size to its price level. Input fed best price first (as {@link SlabView} walks) appends;
+     * anything else is inserted in place.
+     */
+    public void add(long priceLots, long quantityLots) {
+        int index = size;
+        if (size > 0 && !isBetter(prices[size - 1], priceLots)) {
+            index = countAtOrBetterThan(priceLots);
+            if (index > 0 && prices[index - 1] == priceLots) {
+                quantities[index - 1] += quantityLots;
+                return;
+            }
+        }
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        if (index < size) {
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            System.arraycopy(quantities, index, quantities, index + 1, size - index);
+        }
+        prices[index] = priceLots;
+        quantities[index] = quantityLots;
+        size++;
+    }
+
+    public boolean isBids() {
+        return bids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long bestPrice() {
+        return prices[0];
+    }
+
+    public long bestQuantity() {
+        return quantities[0];
+    }
+
+    public float bestFloatPrice() {
+        return lots.priceToFloat(prices[0]);
+    }
+
+    public long priceAt(int level) {
+        return prices[level];
+    }
+
+    public long quantityAt(int level) {
+        return quantities[level];
+    }
+
+    public float floatPriceAt(int level) {
+        return lots.priceToFloat(prices[level]);
+    }
+
+    public float floatQuantityAt(int level) {
+        return lots.quantityToFloat(quantities[level]);
+    }
+
+    /**
+     * @return index of the first level at or beyond (equal or worse than) the price, or {@link #size()} if none
+     */
+    public int firstLevelAtOrBeyond(long priceLots) {
+        return countBetterThan(priceLots);
+    }
+
+    public int firstLevelAtOrBeyond(float price) {
+        return countBetterThan(price);
+    }
+
+    /**
+     * @return number of levels strictly better than the price
+     */
+    public int countBetterThan(long priceLots) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isBetter(prices[mid], priceLots)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return number of levels at or better than the price
+     */
+    public int countAtOrBetterThan(long priceLots) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] == priceLots || isBetter(prices[mid], priceLots)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int countBetterThan(float price) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            float levelPrice = lots.priceToFloat(prices[mid]);
+            if (bids ? levelPrice > price : levelPrice < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int countAtOrBetterThan(float price) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            float levelPrice = lots.priceToFloat(prices[mid]);
+            if (bids ? levelPrice >= price : levelPrice <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isBetter(long priceLots, long thanPriceLots) {
+        return bids ? priceLots > thanPriceLots : priceLots < thanPriceLots;
+    }
+}
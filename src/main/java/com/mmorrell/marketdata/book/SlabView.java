@@ -0,0 +1,193 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.serum.model.Market;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flyweight cursor over a raw bids/asks slab account. Walks the critbit tree in place and exposes the current
+ * leaf through primitive accessors, so reading a book allocates nothing per order.
+ * <p>
+ * Not thread-safe: each reader keeps its own view and {@link #wrap}s the latest published buffer.
+ * Buffers must not be mutated once published.
+ */
+public class SlabView {
+
+    // Account layout: 5 bytes "serum", 8 bytes account flags, 32 byte slab header, then 72 byte nodes
+    private static final int ACCOUNT_FLAGS_OFFSET = 5;
+    private static final int ROOT_OFFSET = 33;
+    private static final int LEAF_COUNT_OFFSET = 37;
+    private static final int NODE_OFFSET = 45;
+    private static final int NODE_SIZE = 72;
+
+    private static final int INNER_NODE = 1;
+    private static final int LEAF_NODE = 2;
+    private static final long BIDS_FLAG = 1L << 5;
+
+    // Node relative offsets
+    private static final int CHILD_OFFSET = 24;
+    private static final int OWNER_SLOT_OFFSET = 4;
+    private static final int PRICE_OFFSET = 16;   // upper 64 bits of the u128 key
+    private static final int OWNER_OFFSET = 24;
+    private static final int QUANTITY_OFFSET = 56;
+    private static final int CLIENT_ORDER_ID_OFFSET = 64;
+
+    // Critbit depth is bounded by the 128 bit key
+    private final int[] stack = new int[256];
+    private final MarketLots lots;
+
+    private ByteBuffer buffer;
+    private int stackSize;
+    private int leafOffset = -1;
+    private boolean bids;
+
+    public SlabView(MarketLots lots) {
+        this.lots = lots;
+    }
+
+    public static SlabView forMarket(Market market) {
+        return new SlabView(MarketLots.forMarket(market));
+    }
+
+    /**
+     * Wraps a slab buffer and positions the cursor before the best order: highest price for bids,
+     * lowest for asks.
+     */
+    public SlabView wrap(ByteBuffer buffer) {
+        this.buffer = buffer.order() == ByteOrder.LITTLE_ENDIAN
+                ? buffer
+                : buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.bids = (this.buffer.getLong(ACCOUNT_FLAGS_OFFSET) & BIDS_FLAG) != 0;
+        return reset();
+    }
+
+    /**
+     * Rewinds the cursor to the top of the book.
+     */
+    public SlabView reset() {
+        stackSize = 0;
+        leafOffset = -1;
+        if (buffer != null && leafCount() > 0) {
+            stack[stackSize++] = nodeOffset(buffer.getInt(ROOT_OFFSET));
+        }
+        return this;
+    }
+
+    public boolean isWrapped() {
+        return buffer != null;
+    }
+
+    public boolean isBids() {
+        return bids;
+    }
+
+    public int leafCount() {
+        return buffer.getInt(LEAF_COUNT_OFFSET);
+    }
+
+    /**
+     * Advances to the next order in price-time priority.
+     *
+     * @return false once the book is exhausted
+     */
+    public boolean next() {
+        while (stackSize > 0) {
+            int offset = stack[--stackSize];
+            int tag = buffer.getInt(offset);
+            if (tag == LEAF_NODE) {
+                leafOffset = offset;
+                return true;
+            }
+            if (tag == INNER_NODE) {
+                int lower = nodeOffset(buffer.getInt(offset + CHILD_OFFSET));
+                int upper = nodeOffset(buffer.getInt(offset + CHILD_OFFSET + 4));
+                // Push the worse side first so the better side pops next
+                if (bids) {
+                    stack[stackSize++] = lower;
+                    stack[stackSize++] = upper;
+                } else {
+                    stack[stackSize++] = upper;
+                    stack[stackSize++] = lower;
+                }
+            }
+        }
+        leafOffset = -1;
+        return false;
+    }
+
+    public long priceLots() {
+        return buffer.getLong(leafOffset + PRICE_OFFSET);
+    }
+
+    public long quantityLots() {
+        return buffer.getLong(leafOffset + QUANTITY_OFFSET);
+    }
+
+    public long clientOrderId() {
+        return buffer.getLong(leafOffset + CLIENT_ORDER_ID_OFFSET);
+    }
+
+    public int ownerSlot() {
+        return buffer.get(leafOffset + OWNER_SLOT_OFFSET) & 0xFF;
+    }
+
+    public float floatPrice() {
+        return lots.priceToFloat(priceLots());
+    }
+
+    public float floatQuantity() {
+        return lots.quantityToFloat(quantityLots());
+    }
+
+    /**
+     * Copies the 32 owner (open orders account) bytes into dst.
+     */
+    public void ownerBytes(byte[] dst) {
+        buffer.get(leafOffset + OWNER_OFFSET, dst, 0, PublicKey.PUBLIC_KEY_LENGTH);
+    }
+
+    /**
+     * Reads one of the four little-endian words of the owner key, for allocation-free comparisons.
+     */
+    public long ownerWord(int index) {
+        return buffer.getLong(leafOffset + OWNER_OFFSET + (index * 8));
+    }
+
+    public boolean ownerEquals(long[] ownerWords) {
+        return ownerWord(0) == ownerWords[0]
+                && ownerWord(1) == ownerWords[1]
+                && ownerWord(2) == ownerWords[2]
+                && ownerWord(3) == ownerWords[3];
+    }
+
+    public boolean ownerIn(long[][] ownerWordsList) {
+        for (long[] ownerWords : ownerWordsList) {
+            if (ownerEquals(ownerWords)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a public key into the words compared by {@link #ownerEquals}. Done once at startup.
+     */
+    public static long[] ownerWords(PublicKey owner) {
+        ByteBuffer key = ByteBuffer.wrap(owner.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        return new long[]{key.getLong(0), key.getLong(8), key.getLong(16), key.getLong(24)};
+    }
+
+    public static long[][] ownerWords(Iterable<PublicKey> owners) {
+        List<long[]> words = new ArrayList<>();
+        owners.forEach(owner -> words.add(ownerWords(owner)));
+        return words.toArray(new long[0][]);
+    }
+
+    private static int nodeOffset(int index) {
+        return NODE_OFFSET + (index * NODE_SIZE);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mmorrell.marketdata.journal;
+
+import lombok.Getter;
+
+/**
+ * What a journal record holds. Codes are written to disk, never reuse one.
+ */
+@Getter
+public enum JournalRecordType {
+    BIDS((byte) 1),
+    ASKS((byte) 2),
+    EVENT_QUEUE((byte) 3),
+    PYTH_PRICE((byte) 4),
+    JUPITER_PRICE((byte) 5);
+
+    private static final JournalRecordType[] BY_CODE = new JournalRecordType[6];
+
+    static {
+        for (JournalRecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    JournalRecordType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the type for a code, null if unknown
+     */
+    public static JournalRecordType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
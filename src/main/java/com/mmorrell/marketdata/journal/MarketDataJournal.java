@@ -0,0 +1,240 @@
+package com.mmorrell.marketdata.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of raw market data, written to memory-mapped files that roll once full.
+ * <p>
+ * {@link #record} only hands the caller's array to a bounded queue and never waits: if the writer falls behind,
+ * records are dropped and counted. A single writer thread copies each array straight into the mapping, so the
+ * data is copied once, from the decoded RPC response into the page cache. Callers must not modify an array
+ * after recording it.
+ * <p>
+ * File layout (little-endian): a header of magic, version, wall clock millis and {@link System#nanoTime} at
+ * open, then records of {@code length, type, slot, receivedNanos, endpoint (u16 length + UTF-8), data (u32
+ * length + bytes)}, where length covers the whole record. A zero length marks the end of the data.
+ */
+@Slf4j
+public class MarketDataJournal implements AutoCloseable {
+
+    static final int MAGIC = 0x4F424A4C;   // "OBJL"
+    static final byte VERSION = 1;
+    static final int FILE_HEADER_SIZE = 4 + 1 + 8 + 8;
+    // length, type, slot, receivedNanos, endpoint length, data length
+    static final int RECORD_OVERHEAD = 4 + 1 + 8 + 8 + 2 + 4;
+
+    private static final int QUEUE_CAPACITY = 16_384;
+
+    private final Path directory;
+    private final long fileSize;
+    private final long startMillis = System.currentTimeMillis();
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    // Writer thread only
+    private final Map<String, byte[]> endpointBytes = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int fileIndex;
+    private volatile boolean closed;
+
+    /**
+     * @param fileSize bytes per file, mapped whole, so at most {@link Integer#MAX_VALUE}
+     */
+    public MarketDataJournal(Path directory, long fileSize) {
+        if (fileSize > Integer.MAX_VALUE || fileSize < FILE_HEADER_SIZE + RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("Journal file size must be between "
+                    + (FILE_HEADER_SIZE + RECORD_OVERHEAD) + " and " + Integer.MAX_VALUE + " bytes: " + fileSize);
+        }
+        this.directory = directory;
+        this.fileSize = fileSize;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.writer = new Thread(this::writeLoop, "market-data-journal");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Recording market data to " + directory.toAbsolutePath());
+    }
+
+    private MarketDataJournal() {
+        this.directory = null;
+        this.fileSize = 0L;
+        this.queue = null;
+        this.writer = null;
+        this.closed = true;
+    }
+
+    /**
+     * A journal that records nothing.
+     */
+    public static MarketDataJournal disabled() {
+        return new MarketDataJournal();
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Queues a record without blocking.
+     *
+     * @param slot          context slot, -1 if the source has none
+     * @param receivedNanos {@link System#nanoTime} when the response arrived
+     * @return false if the journal is disabled, closed or the record was dropped
+     */
+    public boolean record(JournalRecordType type, long slot, long receivedNanos, String endpoint, byte[] data) {
+        if (closed || data == null) {
+            return false;
+        }
+        Entry entry = new Entry(type, slot, receivedNanos, endpoint == null ? "" : endpoint, data);
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        // Closed while offering: the writer may have drained the queue already, take the entry back if so
+        if (closed && queue.remove(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Writes whatever is queued, then flushes and closes the current file.
+     */
+    @Override
+    public void close() {
+        if (!isEnabled() || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                try {
+                    write(entry);
+                } catch (RuntimeException e) {
+                    dropped.incrementAndGet();
+                    log.error("Unable to journal " + entry.type + " record: " + e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(Entry entry) {
+        byte[] endpoint = endpointBytes.computeIfAbsent(entry.endpoint,
+                url -> url.getBytes(StandardCharsets.UTF_8));
+        int length = RECORD_OVERHEAD + endpoint.length + entry.data.length;
+        if (length > fileSize - FILE_HEADER_SIZE) {
+            dropped.incrementAndGet();
+            log.warn("Journal record of " + length + " bytes doesn't fit in a " + fileSize + " byte file");
+            return;
+        }
+        try {
+            if (mapped == null || mapped.remaining() < length) {
+                roll();
+            }
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+            log.error("Unable to open journal file in " + directory + ": " + e.getMessage());
+            return;
+        }
+        mapped.putInt(length);
+        mapped.put(entry.type.getCode());
+        mapped.putLong(entry.slot);
+        mapped.putLong(entry.receivedNanos);
+        mapped.putShort((short) endpoint.length);
+        mapped.put(endpoint);
+        mapped.putInt(entry.data.length);
+        mapped.put(entry.data);
+        recorded.incrementAndGet();
+        bytesWritten.addAndGet(length);
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("journal-%d-%05d.bin", startMillis, fileIndex++));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        mapped.putInt(MAGIC);
+        mapped.put(VERSION);
+        mapped.putLong(System.currentTimeMillis());
+        mapped.putLong(System.nanoTime());
+        log.info("Journal rolled to " + file.getFileName());
+    }
+
+    private void closeFile() {
+        if (mapped == null) {
+            return;
+        }
+        mapped.force();
+        mapped = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Unable to close journal file: " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        private final JournalRecordType type;
+        private final long slot;
+        private final long receivedNanos;
+        private final String endpoint;
+        private final byte[] data;
+
+        private Entry(JournalRecordType type, long slot, long receivedNanos, String endpoint, byte[] data) {
+            this.type = type;
+            this.slot = slot;
+            this.receivedNanos = receivedNanos;
+            this.endpoint = endpoint;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.mmorrell.marketdata.journal;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads one {@link MarketDataJournal} file in write order. Like a cursor: {@link #next} moves to the following
+ * record and the getters describe the current one. Records of unknown types are skipped.
+ */
+public class MarketDataJournalReader {
+
+    private final MappedByteBuffer buffer;
+    @Getter
+    private final long fileStartMillis;
+    @Getter
+    private final long fileStartNanos;
+
+    @Getter
+    private JournalRecordType type;
+    @Getter
+    private long slot;
+    @Getter
+    private long receivedNanos;
+    @Getter
+    private String endpoint;
+    private int dataOffset;
+    private int dataLength;
+
+    public MarketDataJournalReader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < MarketDataJournal.FILE_HEADER_SIZE || buffer.getInt() != MarketDataJournal.MAGIC
+                || buffer.get() != MarketDataJournal.VERSION) {
+            throw new IOException("Not a market data journal: " + file);
+        }
+        this.fileStartMillis = buffer.getLong();
+        this.fileStartNanos = buffer.getLong();
+    }
+
+    /**
+     * @return journal files in a directory, oldest first
+     */
+    public static List<Path> journalFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return false at the end of the file
+     */
+    public boolean next() {
+        while (buffer.remaining() >= MarketDataJournal.RECORD_OVERHEAD) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < MarketDataJournal.RECORD_OVERHEAD || length > buffer.remaining() + 4) {
+                // Zero-filled tail of the file, or a record cut short
+                return false;
+            }
+            type = JournalRecordType.fromCode(buffer.get());
+            slot = buffer.getLong();
+            receivedNanos = buffer.getLong();
+            byte[] endpointBytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(endpointBytes);
+            endpoint = new String(endpointBytes, StandardCharsets.UTF_8);
+            dataLength = buffer.getInt();
+            dataOffset = buffer.position();
+            buffer.position(start + length);
+            if (type != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the current record's data
+     */
+    public byte[] getData() {
+        byte[] data = new byte[dataLength];
+        buffer.get(dataOffset, data);
+        return data;
+    }
+
+    public int getDataLength() {
+        return dataLength;
+    }
+}
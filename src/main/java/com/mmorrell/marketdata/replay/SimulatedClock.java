@@ -0,0 +1,73 @@
+package com.mmorrell.marketdata.replay;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock that only moves when told to, for replays.
+ */
+public class SimulatedClock extends Clock {
+
+    private volatile Instant now;
+
+    public SimulatedClock(Instant start) {
+        this.now = start;
+    }
+
+    public void set(Instant instant) {
+        this.now = instant;
+    }
+
+    /**
+     * @return current time as nanos since the epoch, the replay's stand-in for {@link System#nanoTime()}
+     */
+    public long epochNanos() {
+        Instant instant = now;
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    /**
+     * @return this clock in another zone, moving with it
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(getZone()) ? this : new Zoned(this, zone);
+    }
+
+    private static final class Zoned extends Clock {
+        private final SimulatedClock clock;
+        private final ZoneId zone;
+
+        private Zoned(SimulatedClock clock, ZoneId zone) {
+            this.clock = clock;
+            this.zone = zone;
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return clock.withZone(zone);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mmorrell.pricing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Online realized volatility of one price series at several half-lives.
+ * <p>
+ * Each half-life keeps two exponentially decayed sums, of squared log returns and of the time they span, and
+ * publishes their ratio as volatility per square root of a second. Decaying by the time between ticks, not per
+ * tick, keeps irregular ticks (Pyth publishes, book changes) on one time scale. Constant memory and a few flops
+ * per half-life per tick.
+ * <p>
+ * Updated from one thread, published values are readable from any.
+ */
+public class EwmaVolatility {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long[] halfLivesMs;
+    private final double[] decayPerNano;
+    // Not published below this much time, when a burst of close ticks would read as extreme volatility
+    private final double[] warmUpSeconds;
+    private final double[] squaredReturns;
+    private final double[] seconds;
+    // Double bits per half-life
+    private final AtomicLongArray volatilities;
+    private double lastLogPrice = Double.NaN;
+    private long lastNanos;
+    private volatile long tickCount;
+
+    public EwmaVolatility(long... halfLivesMs) {
+        this.halfLivesMs = halfLivesMs.clone();
+        this.decayPerNano = new double[halfLivesMs.length];
+        this.warmUpSeconds = new double[halfLivesMs.length];
+        this.squaredReturns = new double[halfLivesMs.length];
+        this.seconds = new double[halfLivesMs.length];
+        this.volatilities = new AtomicLongArray(halfLivesMs.length);
+        for (int i = 0; i < halfLivesMs.length; i++) {
+            decayPerNano[i] = Math.log(2.0) / TimeUnit.MILLISECONDS.toNanos(halfLivesMs[i]);
+            warmUpSeconds[i] = halfLivesMs[i] / 4_000.0;
+        }
+    }
+
+    /**
+     * Adds a price tick. Ticks at or before the previous one's time add their return without adding time.
+     */
+    public void update(double price, long timeNanos) {
+        if (!(price > 0.0) || Double.isInfinite(price)) {
+            return;
+        }
+        double logPrice = Math.log(price);
+        if (Double.isNaN(lastLogPrice)) {
+            lastLogPrice = logPrice;
+            lastNanos = timeNanos;
+            return;
+        }
+        double logReturn = logPrice - lastLogPrice;
+        long elapsedNanos = Math.max(0L, timeNanos - lastNanos);
+        lastLogPrice = logPrice;
+        lastNanos = Math.max(lastNanos, timeNanos);
+
+        for (int i = 0; i < halfLivesMs.length; i++) {
+            double decay = Math.exp(-elapsedNanos * decayPerNano[i]);
+            squaredReturns[i] = squaredReturns[i] * decay + logReturn * logReturn;
+            seconds[i] = seconds[i] * decay + elapsedNanos / NANOS_PER_SECOND;
+            double volatility = seconds[i] >= warmUpSeconds[i] ? Math.sqrt(squaredReturns[i] / seconds[i]) : 0.0;
+            volatilities.lazySet(i, Double.doubleToRawLongBits(volatility));
+        }
+        tickCount++;
+    }
+
+    public int size() {
+        return halfLivesMs.length;
+    }
+
+    public long getHalfLifeMs(int index) {
+        return halfLivesMs[index];
+    }
+
+    /**
+     * @return volatility of log price per square root of a second at the index'th half-life, 0 until ticks
+     * span a quarter of it
+     */
+    public double getVolatility(int index) {
+        return Double.longBitsToDouble(volatilities.get(index));
+    }
+
+    /**
+     * @return the highest volatility across half-lives: the short ones react to a spike first, the long ones
+     * remember a volatile regime after it
+     */
+    public double getMaxVolatility() {
+        double max = 0.0;
+        for (int i = 0; i < halfLivesMs.length; i++) {
+            max = Math.max(max, getVolatility(i));
+        }
+        return max;
+    }
+
+    /**
+     * @return price returns ticked so far
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+}
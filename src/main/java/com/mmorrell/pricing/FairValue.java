@@ -0,0 +1,61 @@
+package com.mmorrell.pricing;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One market's blended fair value as published by {@link FairValueEngine}, with the sources it came from.
+ * Immutable.
+ */
+@Getter
+public final class FairValue {
+
+    private final String market;
+    private final double price;
+    /**
+     * Input time of the newest source, the time this value is as of.
+     */
+    private final long timeNanos;
+    private final List<Contribution> contributions;
+
+    FairValue(String market, double price, long timeNanos, List<Contribution> contributions) {
+        this.market = market;
+        this.price = price;
+        this.timeNanos = timeNanos;
+        this.contributions = contributions;
+    }
+
+    @Override
+    public String toString() {
+        return market + " " + price + " " + contributions;
+    }
+
+    /**
+     * A source's input and its share of the blend.
+     */
+    @Getter
+    public static final class Contribution {
+        private final String source;
+        private final double price;
+        private final double confidence;
+        private final long receivedNanos;
+        /**
+         * 0 to 1, shares of all contributions add up to 1.
+         */
+        private final double share;
+
+        Contribution(String source, double price, double confidence, long receivedNanos, double share) {
+            this.source = source;
+            this.price = price;
+            this.confidence = confidence;
+            this.receivedNanos = receivedNanos;
+            this.share = share;
+        }
+
+        @Override
+        public String toString() {
+            return source + "=" + price + " +/-" + confidence + " (" + Math.round(share * 100) + "%)";
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.mmorrell.pricing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blends any configured price sources (Pyth, Jupiter, book prices...) into one {@link FairValue} per market.
+ * <p>
+ * A source's weight is its base weight over its confidence squared (inverse variance), halved for every
+ * half-life of age. Since every source of a market decays at the same rate, the decay of the whole blend cancels
+ * out and only the difference in input times matters: each input is weighed once, when it arrives, and the
+ * market keeps running weighted sums. An update moves the sums by that one source and republishes, nothing is
+ * recomputed from scratch. Sources older than the market's max age, measured against its newest input, drop out.
+ * <p>
+ * Updates to a market are serialized, reads of its published value are lock-free.
+ */
+public class FairValueEngine {
+
+    // Rebase the decay every ~23 half-lives (e^16), long before weights lose precision against each other
+    private static final double MAX_DECAY_EXPONENT = 16.0;
+
+    private final Map<String, Market> markets = new ConcurrentHashMap<>();
+
+    /**
+     * @param halfLifeMs age at which a source counts half as much
+     * @param maxAgeMs   age at which a source no longer counts at all
+     * @return the market, created on first use; later calls return it as first configured
+     */
+    public Market market(String name, long halfLifeMs, long maxAgeMs) {
+        return markets.computeIfAbsent(name, key -> new Market(key, halfLifeMs, maxAgeMs));
+    }
+
+    /**
+     * @return latest fair value of the market, null if it has none yet
+     */
+    public FairValue get(String market) {
+        Market value = markets.get(market);
+        return value != null ? value.fairValue : null;
+    }
+
+    /**
+     * @return every market's latest fair value
+     */
+    public Map<String, FairValue> snapshot() {
+        Map<String, FairValue> result = new LinkedHashMap<>();
+        markets.forEach((name, market) -> {
+            if (market.fairValue != null) {
+                result.put(name, market.fairValue);
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    public static class Market {
+        private final String name;
+        private final double decayPerNano;
+        private final long maxAgeNanos;
+        private final List<Source> sources = new ArrayList<>();
+        // Weights are relative to this time
+        private long baseNanos = Long.MIN_VALUE;
+        private long latestNanos = Long.MIN_VALUE;
+        private int includedCount;
+        private double weightSum;
+        private double weightedPriceSum;
+        private volatile FairValue fairValue;
+
+        private Market(String name, long halfLifeMs, long maxAgeMs) {
+            this.name = name;
+            this.decayPerNano = Math.log(2.0) / TimeUnit.MILLISECONDS.toNanos(halfLifeMs);
+            this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        }
+
+        /**
+         * @param baseWeight relative trust in the source at equal confidence and age
+         * @return the source, created on first use
+         */
+        public synchronized Source source(String sourceName, double baseWeight) {
+            for (Source source : sources) {
+                if (source.name.equals(sourceName)) {
+                    return source;
+                }
+            }
+            Source source = new Source(this, sourceName, baseWeight);
+            sources.add(source);
+            return source;
+        }
+
+        public FairValue getFairValue() {
+            return fairValue;
+        }
+
+        private synchronized void update(Source source, double price, double confidence, long receivedNanos) {
+            if (baseNanos == Long.MIN_VALUE) {
+                baseNanos = receivedNanos;
+            }
+            latestNanos = Math.max(latestNanos, receivedNanos);
+            if ((latestNanos - baseNanos) * decayPerNano > MAX_DECAY_EXPONENT) {
+                rebase();
+            }
+            source.remove();
+            source.price = price;
+            source.confidence = confidence;
+            source.receivedNanos = receivedNanos;
+            source.add();
+            for (Source other : sources) {
+                if (other.included && latestNanos - other.receivedNanos > maxAgeNanos) {
+                    other.remove();
+                }
+            }
+            publish();
+        }
+
+        /**
+         * Moves the weights' reference time to the newest input and re-sums from scratch, which also discards
+         * rounding drift from the running sums.
+         */
+        private void rebase() {
+            baseNanos = latestNanos;
+            weightSum = 0.0;
+            weightedPriceSum = 0.0;
+            includedCount = 0;
+            for (Source source : sources) {
+                if (source.included) {
+                    source.add();
+                }
+            }
+        }
+
+        private void publish() {
+            if (weightSum <= 0.0) {
+                fairValue = null;
+                return;
+            }
+            List<FairValue.Contribution> contributions = new ArrayList<>(sources.size());
+            for (Source source : sources) {
+                if (source.included) {
+                    contributions.add(new FairValue.Contribution(
+                            source.name,
+                            source.price,
+                            source.confidence,
+                            source.receivedNanos,
+                            source.weight / weightSum
+                    ));
+                }
+            }
+            fairValue = new FairValue(name, weightedPriceSum / weightSum, latestNanos,
+                    Collections.unmodifiableList(contributions));
+        }
+    }
+
+    /**
+     * One input of a market's fair value. Update it whenever the input changes.
+     */
+    public static class Source {
+        private final Market market;
+        private final String name;
+        private final double baseWeight;
+        // Guarded by the market
+        private double price;
+        private double confidence;
+        private long receivedNanos;
+        private double weight;
+        private boolean included;
+
+        private Source(Market market, String name, double baseWeight) {
+            this.market = market;
+            this.name = name;
+            this.baseWeight = baseWeight;
+        }
+
+        /**
+         * Replaces the source's input and republishes the market's fair value.
+         *
+         * @param confidence    one standard deviation, in price units; floored at a millionth of the price
+         * @param receivedNanos when the input arrived, same time source for every source of the market
+         */
+        public void update(double price, double confidence, long receivedNanos) {
+            if (!(price > 0.0) || Double.isInfinite(price)) {
+                return;
+            }
+            market.update(this, price, Math.max(confidence, price * 1e-6), receivedNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private void add() {
+            double decay = Math.exp((receivedNanos - market.baseNanos) * market.decayPerNano);
+            weight = baseWeight / (confidence * confidence) * decay;
+            market.weightSum += weight;
+            market.weightedPriceSum += weight * price;
+            market.includedCount++;
+            included = true;
+        }
+
+        private void remove() {
+            if (!included) {
+                return;
+            }
+            market.weightSum -= weight;
+            market.weightedPriceSum -= weight * price;
+            included = false;
+            if (--market.includedCount == 0) {
+                // Nothing left to drift against
+                market.weightSum = 0.0;
+                market.weightedPriceSum = 0.0;
+            }
+        }
+    }
+}
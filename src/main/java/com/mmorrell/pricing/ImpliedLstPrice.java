@@ -0,0 +1,80 @@
+package com.mmorrell.pricing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A liquid staking token's USD price implied from SOL's: SOL/USDC fair value times the LST/SOL exchange rate.
+ * <p>
+ * The rate only drifts with staking yield, so it's refreshed slowly: a time-decayed average of LST/SOL samples,
+ * each taken from one Jupiter response pricing both the LST and SOL, so both legs are as of the same moment. The
+ * implied price then moves with every SOL fair value update instead of waiting for the next Jupiter refresh.
+ * <p>
+ * Updated and read by one strategy loop.
+ */
+public class ImpliedLstPrice {
+
+    private final double decayPerNano;
+    private double rate = Double.NaN;
+    private long rateNanos;
+    private long sampleCount;
+
+    /**
+     * @param rateHalfLifeMs age at which a rate sample counts half as much
+     */
+    public ImpliedLstPrice(long rateHalfLifeMs) {
+        this.decayPerNano = Math.log(2.0) / TimeUnit.MILLISECONDS.toNanos(rateHalfLifeMs);
+    }
+
+    /**
+     * Adds an LST/SOL rate sample from both USD prices, taken at the same time. Samples older than the last one
+     * are ignored.
+     *
+     * @return true if the rate moved
+     */
+    public boolean updateRate(double lstUsdPrice, double solUsdPrice, long receivedNanos) {
+        if (!(lstUsdPrice > 0.0) || !(solUsdPrice > 0.0) || Double.isInfinite(lstUsdPrice / solUsdPrice)) {
+            return false;
+        }
+        double sample = lstUsdPrice / solUsdPrice;
+        if (Double.isNaN(rate)) {
+            rate = sample;
+        } else if (receivedNanos > rateNanos) {
+            double weight = 1.0 - Math.exp(-(receivedNanos - rateNanos) * decayPerNano);
+            rate += weight * (sample - rate);
+        } else {
+            return false;
+        }
+        rateNanos = receivedNanos;
+        sampleCount++;
+        return true;
+    }
+
+    /**
+     * @return LST/USD implied from a SOL/USD price, NaN until the first rate sample
+     */
+    public double price(double solUsdPrice) {
+        return solUsdPrice * rate;
+    }
+
+    public boolean hasRate() {
+        return !Double.isNaN(rate);
+    }
+
+    /**
+     * @return SOL per LST, NaN until the first sample
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * @return when the last rate sample arrived (System.nanoTime)
+     */
+    public long getRateNanos() {
+        return rateNanos;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+}
@@ -0,0 +1,150 @@
+package com.mmorrell.pricing;
+
+import com.mmorrell.config.OpenBookConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Latest Jupiter price per id, each with its own time to live. Written by the refresh callback, read from any
+ * strategy thread. Past its TTL a price is stale: still kept for status, but no longer handed out to quote from.
+ */
+public class JupiterPriceCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+
+    public JupiterPriceCache() {
+        this(System::nanoTime);
+    }
+
+    JupiterPriceCache(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Starts caching an id. Tracking it again keeps the shortest TTL.
+     */
+    public void track(String id, long ttlMs) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        entries.merge(id, new Entry(ttlNanos), (current, added) -> current.ttlNanos <= ttlNanos ? current : added);
+    }
+
+    public boolean isTracked(String id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Ids not tracked are ignored.
+     *
+     * @return true if cached
+     */
+    public boolean put(String id, double price, long receivedNanos) {
+        Entry entry = entries.get(id);
+        return entry != null && entry.update(price, receivedNanos);
+    }
+
+    /**
+     * @return the price, empty if none yet or stale
+     */
+    public Optional<Double> getFresh(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Price price = entry.price;
+        if (price == null || isStale(entry, price)) {
+            return Optional.empty();
+        }
+        return Optional.of(price.value);
+    }
+
+    /**
+     * @return the price as a quote with {@link OpenBookConfig#JUPITER_CONFIDENCE} as its confidence and no slot,
+     * null if none yet or stale
+     */
+    public OraclePrice getFreshQuote(String id) {
+        Entry entry = entries.get(id);
+        Price price = entry != null ? entry.price : null;
+        if (price == null || isStale(entry, price)) {
+            return null;
+        }
+        return new OraclePrice((float) price.value, (float) (price.value * OpenBookConfig.JUPITER_CONFIDENCE), -1L,
+                price.receivedNanos);
+    }
+
+    /**
+     * @return when the id's price arrived (System.nanoTime), -1 if it has none, stale or not
+     */
+    public long getReceivedNanos(String id) {
+        Entry entry = entries.get(id);
+        Price price = entry != null ? entry.price : null;
+        return price != null ? price.receivedNanos : -1L;
+    }
+
+    /**
+     * @return true if the id has no price yet or its price is past its TTL
+     */
+    public boolean isStale(String id) {
+        Entry entry = entries.get(id);
+        return entry == null || entry.price == null || isStale(entry, entry.price);
+    }
+
+    private boolean isStale(Entry entry, Price price) {
+        return nanoTime.getAsLong() - price.receivedNanos > entry.ttlNanos;
+    }
+
+    /**
+     * @return per id: price, age, TTL and staleness
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        long now = nanoTime.getAsLong();
+        entries.forEach((id, entry) -> {
+            Price price = entry.price;
+            stats.put(id, Map.of(
+                    "price", price != null ? price.value : 0.0,
+                    "ageMs", price != null ? TimeUnit.NANOSECONDS.toMillis(now - price.receivedNanos) : -1L,
+                    "ttlMs", TimeUnit.NANOSECONDS.toMillis(entry.ttlNanos),
+                    "stale", price == null || isStale(entry, price),
+                    "updates", entry.updateCount
+            ));
+        });
+        return stats;
+    }
+
+    private static final class Entry {
+        private final long ttlNanos;
+        private volatile Price price;
+        private volatile long updateCount;
+
+        private Entry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        // A slow response finishing after a newer one is ignored
+        private synchronized boolean update(double value, long receivedNanos) {
+            Price current = price;
+            if (current != null && receivedNanos < current.receivedNanos) {
+                return false;
+            }
+            price = new Price(value, receivedNanos);
+            updateCount++;
+            return true;
+        }
+    }
+
+    private static final class Price {
+        private final double value;
+        private final long receivedNanos;
+
+        private Price(double value, long receivedNanos) {
+            this.value = value;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mmorrell.pricing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls {@code data.<id>.price} out of a Jupiter price API response with a streaming parser, straight into
+ * primitive doubles: no tree, no maps, every other field skipped. Thread-safe.
+ */
+public class JupiterPriceDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public JupiterPriceDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @FunctionalInterface
+    public interface PriceListener {
+        void onPrice(String id, double price);
+    }
+
+    /**
+     * @return number of prices decoded
+     */
+    public int decode(byte[] json, PriceListener listener) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Jupiter response isn't an object");
+            }
+            int count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(field)) {
+                    count += decodeData(parser, listener);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        }
+    }
+
+    private static int decodeData(JsonParser parser, PriceListener listener) throws IOException {
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String id = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            double price = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean isPrice = "price".equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (isPrice && value.isNumeric()) {
+                    price = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!Double.isNaN(price)) {
+                listener.onPrice(id, price);
+                count++;
+            }
+        }
+        return count;
+    }
+}
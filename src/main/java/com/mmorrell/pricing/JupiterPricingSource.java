@@ -1,56 +1,219 @@
 package com.mmorrell.pricing;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Jupiter prices for every tracked id, refreshed on one schedule for all strategies.
+ * <p>
+ * Ids are batched into one non-blocking request per quote size ({@code vsAmount}), never more than one in flight
+ * per batch, and land in a {@link JupiterPriceCache} where each id expires after its own TTL.
+ */
 @Slf4j
 @Component
-public class JupiterPricingSource {
+public class JupiterPricingSource implements PricingSource {
+
+    public static final String NAME = "jupiter";
+
+    private static final String PRICE_URL = "https://price.jup.ag/v4/price";
 
-    private final Map<String, Double> priceMap = new HashMap<>();
     private final OkHttpClient okHttpClient;
-    private final ObjectMapper objectMapper;
+    private final JupiterPriceDecoder priceDecoder;
+    private final MarketDataJournal journal;
+    private final JupiterPriceCache priceCache = new JupiterPriceCache();
+    // Tracked ids by vsAmount, one request each
+    private final Map<Long, Batch> batches = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final PriceListeners listeners = new PriceListeners(NAME);
+    private final PriceLatencyTracker.Source latency;
 
-    public JupiterPricingSource(OkHttpClient okHttpClient, ObjectMapper objectMapper) {
+    public JupiterPricingSource(OkHttpClient okHttpClient,
+                                ObjectMapper objectMapper,
+                                MarketDataJournal journal,
+                                PriceLatencyTracker latencyTracker) {
         this.okHttpClient = okHttpClient;
-        this.objectMapper = objectMapper;
+        this.priceDecoder = new JupiterPriceDecoder(objectMapper.getFactory());
+        this.journal = journal;
+        this.latency = latencyTracker.source(NAME);
+    }
+
+    /**
+     * Adds an id (symbol or mint) to the shared refresh, priced for {@code usdcAmount} USDC. An id keeps the
+     * amount it was first tracked with.
+     *
+     * @param ttlMs how long a price is quoted from after it arrives
+     */
+    public void track(String id, long usdcAmount, long ttlMs) {
+        if (!priceCache.isTracked(id)) {
+            batches.computeIfAbsent(usdcAmount, Batch::new).ids.add(id);
+            log.info("Jupiter tracking " + id + " at " + usdcAmount + " USDC");
+        }
+        priceCache.track(id, ttlMs);
+    }
+
+    public void track(String id, long usdcAmount) {
+        track(id, usdcAmount, OpenBookConfig.JUPITER_PRICE_TTL_MS);
+    }
+
+    @Scheduled(initialDelay = 0L, fixedRate = OpenBookConfig.JUPITER_REFRESH_INTERVAL_MS)
+    public void refresh() {
+        batches.values().forEach(this::refresh);
     }
 
-    // https://price.jup.ag/v4/price?ids=ORCA&vsAmount=300
-    // https://price.jup.ag/v4/price?ids=DezXAZ8z7PnrnRJjz3wXBoRgixCa6xjnB7YaB1pPB263&vsAmount=1500
-    public Optional<Double> getUsdcPriceForSymbol(String symbol, long usdcAmount) {
+    private void refresh(Batch batch) {
+        if (batch.ids.isEmpty() || !batch.inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        // https://price.jup.ag/v4/price?ids=ORCA,DezXAZ8z7PnrnRJjz3wXBoRgixCa6xjnB7YaB1pPB263&vsAmount=300
         Request request = new Request.Builder()
-                .url(String.format("https://price.jup.ag/v4/price?ids=%s&vsAmount=%d", symbol, usdcAmount))
+                .url(String.format(PRICE_URL + "?ids=%s&vsAmount=%d", String.join(",", batch.ids), batch.vsAmount))
                 .build();
+        requestCount.incrementAndGet();
+        long sentNanos = System.nanoTime();
+        okHttpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                batch.inFlight.set(false);
+                errorCount.incrementAndGet();
+                log.error("Error getting Jupiter prices for " + batch.ids + ", " + e.getMessage());
+            }
 
-        try (Response response = okHttpClient.newCall(request).execute()) {
-            String json = response.body().string();
-            Map<String, Object> map = objectMapper.readValue(json, new TypeReference<>() {
-            });
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    byte[] json = response.body().bytes();
+                    long receivedNanos = System.nanoTime();
+                    // Jupiter prices are made on request, the round trip is their publish-to-receive
+                    latency.recordPublishToReceive(receivedNanos - sentNanos);
+                    // No slot for Jupiter responses
+                    journal.record(JournalRecordType.JUPITER_PRICE, -1L, receivedNanos, PRICE_URL, json);
+                    apply(json, receivedNanos);
+                } catch (Exception e) {
+                    errorCount.incrementAndGet();
+                    log.error("Error reading Jupiter prices for " + batch.ids + ", " + e.getMessage());
+                } finally {
+                    batch.inFlight.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Caches every tracked id's price from a price API response.
+     *
+     * @return number of prices cached
+     */
+    int apply(byte[] json, long receivedNanos) throws IOException {
+        return priceDecoder.decode(json, (id, price) -> {
+            OraclePrice quote = priceCache.put(id, price, receivedNanos) ? priceCache.getFreshQuote(id) : null;
+            if (quote != null) {
+                listeners.fire(id, quote);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
 
-            double price = (double)((Map<?, ?>)((Map<?, ?>) map.get("data")).get(symbol)).get("price");
-            return Optional.of(price);
+    /**
+     * @return the id's price with {@link OpenBookConfig#JUPITER_CONFIDENCE} as its confidence and no slot, null
+     * until it's first fetched or once it's past its TTL
+     */
+    @Override
+    public OraclePrice getPrice(String id) {
+        return priceCache.getFreshQuote(id);
+    }
+
+    @Override
+    public void addListener(PriceListener listener) {
+        listeners.add(listener);
+    }
 
+    /**
+     * One-off blocking lookup outside the shared refresh, for tools and tests. Strategies track their ids instead.
+     *
+     * @return the id's price for {@code usdcAmount} USDC, empty on any error
+     */
+    public Optional<Double> getUsdcPriceForSymbol(String id, long usdcAmount) {
+        Request request = new Request.Builder()
+                .url(String.format(PRICE_URL + "?ids=%s&vsAmount=%d", id, usdcAmount))
+                .build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            double[] price = {Double.NaN};
+            priceDecoder.decode(response.body().bytes(), (decodedId, decodedPrice) -> {
+                if (decodedId.equals(id)) {
+                    price[0] = decodedPrice;
+                }
+            });
+            return Double.isNaN(price[0]) ? Optional.empty() : Optional.of(price[0]);
         } catch (Exception e) {
-            log.error("Error getting Jupiter price for " + symbol + ", " + e.getMessage());
+            log.error("Error getting Jupiter price for " + id + ", " + e.getMessage());
             return Optional.empty();
         }
     }
 
-    public void updatePriceMap(String symbol, double price) {
-        priceMap.put(symbol, price);
+    /**
+     * @return the id's price, empty until it's first fetched or once it's past its TTL
+     */
+    public Optional<Double> getCachedPrice(String id) {
+        return priceCache.getFresh(id);
+    }
+
+    public PriceLatencyTracker.Source getLatency() {
+        return latency;
     }
 
-    public Optional<Double> getCachedPrice(String symbol) {
-        return Optional.ofNullable(priceMap.get(symbol));
+    public boolean isStale(String id) {
+        return priceCache.isStale(id);
+    }
+
+    /**
+     * @return when the id's price arrived (System.nanoTime), -1 if it has none
+     */
+    public long getReceivedNanos(String id) {
+        return priceCache.getReceivedNanos(id);
+    }
+
+    /**
+     * @return per id price and staleness, plus request and error counts
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "prices", priceCache.getStats(),
+                "batches", batches.size(),
+                "requests", requestCount.get(),
+                "errors", errorCount.get()
+        );
+    }
+
+    private static final class Batch {
+        private final long vsAmount;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+
+        private Batch(long vsAmount) {
+            this.vsAmount = vsAmount;
+        }
     }
 }
@@ -0,0 +1,110 @@
+package com.mmorrell.pricing;
+
+import java.util.Optional;
+
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_HALF_LIFE_MS;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_MAX_SOURCE_AGE_MS;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_WEIGHT_IMPLIED;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_WEIGHT_JUPITER;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_WEIGHT_PYTH;
+import static com.mmorrell.config.OpenBookConfig.IMPLIED_LST_CONFIDENCE;
+import static com.mmorrell.config.OpenBookConfig.JUPITER_CONFIDENCE;
+import static com.mmorrell.config.OpenBookConfig.JUPITER_SOL_SYMBOL;
+import static com.mmorrell.config.OpenBookConfig.LST_RATE_HALF_LIFE_MS;
+import static com.mmorrell.config.OpenBookConfig.SOL_USDC_FAIR_VALUE_MARKET;
+
+/**
+ * Fair value of a liquid staking token: led by SOL/USDC fair value times the LST/SOL rate ({@link ImpliedLstPrice}),
+ * moving with every SOL update, plus the LST's Pyth feed, when configured, and its Jupiter price.
+ * <p>
+ * Each {@link #update()} feeds the blend only what changed since the last one: a Pyth publish slot, a Jupiter
+ * response or a SOL/USDC fair value is used once. Updated and read by one strategy loop.
+ */
+public class LstFairValue {
+
+    private final PythPricingSource pythPricingSource;
+    private final JupiterPricingSource jupiterPricingSource;
+    private final String pythSymbol;
+    private final String jupiterSymbol;
+    private final FairValueEngine.Market fairValue;
+    private final FairValueEngine.Source pythSource;
+    private final FairValueEngine.Source jupiterSource;
+    private final FairValueEngine.Source impliedSource;
+    private final FairValueEngine.Market solUsdcFairValue;
+    private final ImpliedLstPrice impliedPrice = new ImpliedLstPrice(LST_RATE_HALF_LIFE_MS);
+    private long lastPythSlot = -1L;
+    private long lastJupiterNanos = -1L;
+    private FairValue lastSolFairValue;
+
+    /**
+     * Starts tracking the LST and SOL on Jupiter.
+     *
+     * @param marketName    fair value market, e.g. {@code JitoSOL/USDC}
+     * @param pythSymbol    the LST's Pyth feed, unused while not configured
+     * @param jupiterSymbol the LST's Jupiter id
+     */
+    public LstFairValue(FairValueEngine fairValueEngine,
+                        String marketName,
+                        String pythSymbol,
+                        String jupiterSymbol,
+                        PythPricingSource pythPricingSource,
+                        JupiterPricingSource jupiterPricingSource) {
+        this.pythPricingSource = pythPricingSource;
+        this.jupiterPricingSource = jupiterPricingSource;
+        this.pythSymbol = pythSymbol;
+        this.jupiterSymbol = jupiterSymbol;
+        jupiterPricingSource.track(jupiterSymbol, 500); // shared refresh, see JupiterPricingSource
+        jupiterPricingSource.track(JUPITER_SOL_SYMBOL, 500); // same batch, so both legs of the rate match
+        this.fairValue = fairValueEngine.market(marketName, FAIR_VALUE_HALF_LIFE_MS, FAIR_VALUE_MAX_SOURCE_AGE_MS);
+        this.pythSource = fairValue.source("pyth", FAIR_VALUE_WEIGHT_PYTH);
+        this.jupiterSource = fairValue.source("jupiter", FAIR_VALUE_WEIGHT_JUPITER);
+        this.impliedSource = fairValue.source("implied", FAIR_VALUE_WEIGHT_IMPLIED);
+        this.solUsdcFairValue = fairValueEngine.market(SOL_USDC_FAIR_VALUE_MARKET, FAIR_VALUE_HALF_LIFE_MS,
+                FAIR_VALUE_MAX_SOURCE_AGE_MS);
+    }
+
+    /**
+     * Feeds the blend with the inputs that changed since the last call, and records how old each input is as the
+     * loop reads it.
+     */
+    public void update() {
+        final long now = System.nanoTime();
+        final OraclePrice oraclePrice = pythPricingSource.getPrice(pythSymbol);
+        if (oraclePrice != null) {
+            pythPricingSource.getLatency().recordReceiveToUse(now - oraclePrice.getReceivedNanos());
+        }
+        if (oraclePrice != null && oraclePrice.getPublishSlot() != lastPythSlot) {
+            lastPythSlot = oraclePrice.getPublishSlot();
+            pythSource.update(oraclePrice.getPrice(), oraclePrice.getConfidence(), oraclePrice.getReceivedNanos());
+        }
+        final long jupiterNanos = jupiterPricingSource.getReceivedNanos(jupiterSymbol);
+        final Optional<Double> jupiterPrice = jupiterPricingSource.getCachedPrice(jupiterSymbol);
+        if (jupiterPrice.isPresent()) {
+            jupiterPricingSource.getLatency().recordReceiveToUse(now - jupiterNanos);
+        }
+        if (jupiterPrice.isPresent() && jupiterNanos != lastJupiterNanos) {
+            lastJupiterNanos = jupiterNanos;
+            jupiterSource.update(jupiterPrice.get(), jupiterPrice.get() * JUPITER_CONFIDENCE, jupiterNanos);
+            // LST/SOL from the response that priced both
+            final Optional<Double> jupiterSolPrice = jupiterPricingSource.getCachedPrice(JUPITER_SOL_SYMBOL);
+            if (jupiterSolPrice.isPresent()
+                    && jupiterPricingSource.getReceivedNanos(JUPITER_SOL_SYMBOL) == jupiterNanos) {
+                impliedPrice.updateRate(jupiterPrice.get(), jupiterSolPrice.get(), jupiterNanos);
+            }
+        }
+        // Moves with every SOL/USDC fair value, between Jupiter refreshes
+        final FairValue solFairValue = solUsdcFairValue.getFairValue();
+        if (solFairValue != null && solFairValue != lastSolFairValue && impliedPrice.hasRate()) {
+            lastSolFairValue = solFairValue;
+            final double implied = impliedPrice.price(solFairValue.getPrice());
+            impliedSource.update(implied, implied * IMPLIED_LST_CONFIDENCE, solFairValue.getTimeNanos());
+        }
+    }
+
+    /**
+     * @return latest blend, null before any input
+     */
+    public FairValue getFairValue() {
+        return fairValue.getFairValue();
+    }
+}
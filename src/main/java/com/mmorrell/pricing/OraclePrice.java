@@ -0,0 +1,37 @@
+package com.mmorrell.pricing;
+
+import lombok.Getter;
+
+/**
+ * One price quote, as a Pyth aggregate price is published on chain: price and confidence, the slot it was
+ * published at (-1 for sources without one) and when the update reached us (System.nanoTime). Immutable, so a
+ * reader always sees all four from the same update.
+ */
+@Getter
+public final class OraclePrice {
+
+    private final float price;
+    private final float confidence;
+    private final long publishSlot;
+    private final long receivedNanos;
+
+    public OraclePrice(float price, float confidence, long publishSlot, long receivedNanos) {
+        this.price = price;
+        this.confidence = confidence;
+        this.publishSlot = publishSlot;
+        this.receivedNanos = receivedNanos;
+    }
+
+    public float getBid() {
+        return price - confidence;
+    }
+
+    public float getAsk() {
+        return price + confidence;
+    }
+
+    @Override
+    public String toString() {
+        return price + " +/-" + confidence + " @" + publishSlot;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mmorrell.pricing;
+
+import com.mmorrell.config.OpenBookConfig;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of each pricing source's quotes, to tell whether a feed or the way we read it limits quote freshness:
+ * <ul>
+ *     <li>publish to receive: from the source making a price to it reaching us</li>
+ *     <li>receive to use: age of a quote when a strategy reads it</li>
+ * </ul>
+ * Recorded lock-free from any thread into HdrHistogram recorders, in microseconds, and rotated every
+ * {@link OpenBookConfig#PRICE_LATENCY_INTERVAL_MS}: stats describe the last complete interval.
+ */
+public class PriceLatencyTracker {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+
+    /**
+     * @return the source's latencies, created on first use
+     */
+    public Source source(String name) {
+        return sources.computeIfAbsent(name, Source::new);
+    }
+
+    @Scheduled(initialDelay = OpenBookConfig.PRICE_LATENCY_INTERVAL_MS,
+            fixedRate = OpenBookConfig.PRICE_LATENCY_INTERVAL_MS)
+    public void rotate() {
+        sources.values().forEach(Source::rotate);
+    }
+
+    /**
+     * @return per source, percentiles of both latencies over the last complete interval
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        sources.forEach((name, source) -> stats.put(name, Map.of(
+                "publishToReceiveMicros", source.publishToReceive.getStats(),
+                "receiveToUseMicros", source.receiveToUse.getStats()
+        )));
+        return stats;
+    }
+
+    public static class Source {
+        private final String name;
+        private final Latency publishToReceive = new Latency();
+        private final Latency receiveToUse = new Latency();
+
+        private Source(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void recordPublishToReceive(long nanos) {
+            publishToReceive.record(nanos);
+        }
+
+        /**
+         * @param nanos read time minus the quote's receive time, on the same time source
+         */
+        public void recordReceiveToUse(long nanos) {
+            receiveToUse.record(nanos);
+        }
+
+        private void rotate() {
+            publishToReceive.rotate();
+            receiveToUse.rotate();
+        }
+    }
+
+    private static final class Latency {
+        private final Recorder recorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        // Not recycled, it may still be read for stats
+        private volatile Histogram lastInterval;
+
+        private void record(long nanos) {
+            recorder.recordValue(Math.max(0L, Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos))));
+        }
+
+        private void rotate() {
+            lastInterval = recorder.getIntervalHistogram();
+        }
+
+        private Map<String, Object> getStats() {
+            Histogram histogram = lastInterval;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            if (histogram == null) {
+                stats.put("count", 0L);
+                return stats;
+            }
+            stats.put("count", histogram.getTotalCount());
+            stats.put("p50", histogram.getValueAtPercentile(50.0));
+            stats.put("p90", histogram.getValueAtPercentile(90.0));
+            stats.put("p99", histogram.getValueAtPercentile(99.0));
+            stats.put("p999", histogram.getValueAtPercentile(99.9));
+            stats.put("max", histogram.getMaxValue());
+            stats.put("mean", Math.round(histogram.getMean()));
+            stats.put("intervalStartMs", histogram.getStartTimeStamp());
+            stats.put("intervalEndMs", histogram.getEndTimeStamp());
+            return stats;
+        }
+    }
+}
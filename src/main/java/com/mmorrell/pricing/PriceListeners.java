@@ -0,0 +1,34 @@
+package com.mmorrell.pricing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listeners of one {@link PricingSource}. A failing listener is logged and doesn't stop the others.
+ */
+@Slf4j
+final class PriceListeners {
+
+    private final String source;
+    private final List<PricingSource.PriceListener> listeners = new CopyOnWriteArrayList<>();
+
+    PriceListeners(String source) {
+        this.source = source;
+    }
+
+    void add(PricingSource.PriceListener listener) {
+        listeners.add(listener);
+    }
+
+    void fire(String symbol, OraclePrice price) {
+        for (PricingSource.PriceListener listener : listeners) {
+            try {
+                listener.onPrice(source, symbol, price);
+            } catch (RuntimeException e) {
+                log.error("Price listener error on " + source + " " + symbol + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mmorrell.pricing;
+
+/**
+ * A feed of prices by symbol, whatever it comes from: Pyth, Jupiter, a recording. Prices are {@link OraclePrice}
+ * quotes: price, confidence, slot (-1 if the source has none) and when the quote reached us (System.nanoTime).
+ */
+public interface PricingSource {
+
+    /**
+     * @return short name of the source, as reported to listeners
+     */
+    String getName();
+
+    /**
+     * @return latest quote for the symbol, null if none yet, unknown, or no longer fresh enough to quote from
+     */
+    OraclePrice getPrice(String symbol);
+
+    /**
+     * Pushes every new quote to the listener from then on, on the thread the quote arrived on, once it's
+     * readable from {@link #getPrice}. Keep listeners short.
+     */
+    void addListener(PriceListener listener);
+
+    @FunctionalInterface
+    interface PriceListener {
+        void onPrice(String source, String symbol, OraclePrice price);
+    }
+}
@@ -0,0 +1,159 @@
+package com.mmorrell.pricing;
+
+import com.mmorrell.pyth.model.PriceDataAccount;
+import com.mmorrell.pyth.model.PriceInfo;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest {@link OraclePrice} of a fixed set of Pyth price accounts, one slot per feed.
+ * <p>
+ * Writers (socket and poller) decode outside any lock and publish the new tuple with a compare-and-set; an update
+ * published at an older slot than the cached one loses and is counted. A re-read of the cached aggregate (same
+ * publish slot, e.g. the next poll) keeps the cached tuple, so its receive time stays when the price changed. Readers resolve a feed's index once and
+ * then read it with a single volatile load, no locking or allocation on the hot path.
+ */
+public class PythPriceCache {
+
+    private final List<String> symbols;
+    private final List<PublicKey> accounts;
+    private final Map<String, Integer> indexBySymbol = new HashMap<>();
+    private final AtomicReferenceArray<OraclePrice> prices;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+
+    /**
+     * @param feeds price account by symbol, in index order
+     */
+    public PythPriceCache(Map<String, PublicKey> feeds) {
+        this.symbols = List.copyOf(feeds.keySet());
+        this.accounts = List.copyOf(feeds.values());
+        for (int i = 0; i < symbols.size(); i++) {
+            indexBySymbol.put(symbols.get(i), i);
+        }
+        this.prices = new AtomicReferenceArray<>(symbols.size());
+    }
+
+    /**
+     * Parses {@code SYMBOL=account,SYMBOL=account}.
+     */
+    public static Map<String, PublicKey> parseFeeds(String feeds) {
+        Map<String, PublicKey> result = new LinkedHashMap<>();
+        for (String feed : feeds.split(",")) {
+            if (feed.isBlank()) {
+                continue;
+            }
+            String[] parts = feed.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad Pyth feed, expected SYMBOL=account: " + feed);
+            }
+            result.put(parts[0].trim(), new PublicKey(parts[1].trim()));
+        }
+        return result;
+    }
+
+    /**
+     * @return the feed's index, -1 if not configured
+     */
+    public int indexOf(String symbol) {
+        return indexBySymbol.getOrDefault(symbol, -1);
+    }
+
+    /**
+     * @return latest price of the feed, null before its first update
+     */
+    public OraclePrice get(int index) {
+        return prices.get(index);
+    }
+
+    /**
+     * @return latest price of the feed, null before its first update or if not configured
+     */
+    public OraclePrice get(String symbol) {
+        int index = indexOf(symbol);
+        return index < 0 ? null : prices.get(index);
+    }
+
+    /**
+     * Decodes raw price account data and publishes it unless an update from the same or a newer slot already was.
+     *
+     * @return true if published
+     */
+    public boolean update(int index, byte[] priceAccountData, long receivedNanos) {
+        final PriceInfo aggregate = PriceDataAccount.readPriceDataAccount(priceAccountData).getAggregatePriceInfo();
+        return publish(index, new OraclePrice(
+                aggregate.getPrice(),
+                aggregate.getConfidence(),
+                aggregate.getPublishSlot(),
+                receivedNanos
+        ));
+    }
+
+    public boolean publish(int index, OraclePrice price) {
+        while (true) {
+            OraclePrice previous = prices.get(index);
+            if (previous != null && price.getPublishSlot() < previous.getPublishSlot()) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            if (previous != null && price.getPublishSlot() == previous.getPublishSlot()) {
+                duplicateCount.incrementAndGet();
+                return false;
+            }
+            if (prices.compareAndSet(index, previous, price)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    public String getSymbol(int index) {
+        return symbols.get(index);
+    }
+
+    public PublicKey getAccount(int index) {
+        return accounts.get(index);
+    }
+
+    public List<PublicKey> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * @return updates lost to a newer one
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return re-reads of an aggregate already cached
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    /**
+     * @return every feed's latest price by symbol, feeds without one are left out
+     */
+    public Map<String, OraclePrice> snapshot() {
+        Map<String, OraclePrice> result = new LinkedHashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            OraclePrice price = prices.get(i);
+            if (price != null) {
+                result.put(symbols.get(i), price);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
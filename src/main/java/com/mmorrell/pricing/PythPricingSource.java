@@ -1,63 +1,242 @@
 package com.mmorrell.pricing;
 
-import com.mmorrell.pyth.manager.PythManager;
-import com.mmorrell.pyth.model.PriceDataAccount;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.AccountWebSocketFeed;
+import com.mmorrell.marketdata.HedgedRpcClient;
+import com.mmorrell.marketdata.MultipleAccountsDecoder;
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
 import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 
-// Auto feed SOL price into a cache from Pyth
+// Auto feed Pyth prices into a cache: every configured price account pushed via one accountSubscribe socket,
+// polled in one getMultipleAccounts call while the socket is down. SOL/USD is always fed.
 @Component
 @Slf4j
-public class PythPricingSource {
+public class PythPricingSource implements PricingSource {
 
-    private final PythManager pythManager;
-    private final PublicKey solUsdPriceDataAccount = new PublicKey("H6ARHf6YXhGYeQfUzQNGk6rDNnLBQKrenN712K4AQJEG");
-    private static Optional<Float> solPrice = Optional.empty();
-    private static Optional<Float> solPriceConfidence = Optional.empty();
+    public static final String NAME = "pyth";
 
-    public PythPricingSource(PythManager pythManager) {
-        this.pythManager = pythManager;
+    private final HedgedRpcClient dataRpcClient;
+    private final MarketDataJournal journal;
+    private final OkHttpClient okHttpClient;
+    private final ObjectMapper objectMapper;
+    private final PythPriceCache priceCache;
+    private final int solIndex;
+    private final List<Object> pollParams;
+    private final PriceListeners listeners = new PriceListeners(NAME);
+    private final PriceLatencyTracker.Source latency;
+    private AccountWebSocketFeed priceFeed;
+
+    @Value("${solana.data.ws.url}")
+    public String dataWsUrl;
+
+    @Value("${openbook.pyth.websocket}")
+    public boolean useWebSocketFeed;
+
+    /**
+     * @param feeds extra price accounts, {@code SYMBOL=account,...}
+     */
+    public PythPricingSource(@Qualifier("data") HedgedRpcClient dataRpcClient,
+                             MarketDataJournal journal,
+                             OkHttpClient okHttpClient,
+                             ObjectMapper objectMapper,
+                             @Value("${openbook.pyth.feeds:}") String feeds,
+                             PriceLatencyTracker latencyTracker) {
+        this.dataRpcClient = dataRpcClient;
+        this.journal = journal;
+        this.okHttpClient = okHttpClient;
+        this.objectMapper = objectMapper;
+        this.latency = latencyTracker.source(NAME);
+        Map<String, PublicKey> accounts = new LinkedHashMap<>();
+        accounts.put(OpenBookConfig.PYTH_SOL_SYMBOL, OpenBookConfig.PYTH_SOL_USD_PRICE_ACCOUNT);
+        accounts.putAll(PythPriceCache.parseFeeds(feeds == null ? "" : feeds));
+        this.priceCache = new PythPriceCache(accounts);
+        this.solIndex = priceCache.indexOf(OpenBookConfig.PYTH_SOL_SYMBOL);
+        this.pollParams = List.of(
+                priceCache.getAccounts().stream().map(PublicKey::toBase58).toList(),
+                Map.of("encoding", "base64", "commitment", Commitment.PROCESSED.getValue())
+        );
+    }
+
+    @PostConstruct
+    public void init() {
+        log.info("Pyth feeds: " + String.join(", ", accountsBySymbol()));
+        if (!useWebSocketFeed) {
+            return;
+        }
+        priceFeed = new AccountWebSocketFeed(
+                okHttpClient,
+                objectMapper,
+                dataWsUrl,
+                "Pyth",
+                priceCache.getAccounts(),
+                this::onPriceUpdate
+        );
+        priceFeed.start();
+    }
+
+    private List<String> accountsBySymbol() {
+        return IntStream.range(0, priceCache.size())
+                .mapToObj(i -> priceCache.getSymbol(i) + "=" + priceCache.getAccount(i).toBase58())
+                .toList();
+    }
+
+    /**
+     * @return true while updates are pushed and polling is idle
+     */
+    public boolean isLive() {
+        return priceFeed != null && priceFeed.isLive();
+    }
+
+    private void onPriceUpdate(int index, byte[] data, long slot) {
+        long receivedNanos = System.nanoTime();
+        if (index == solIndex) {
+            journal.record(JournalRecordType.PYTH_PRICE, slot, receivedNanos, dataWsUrl, data);
+        }
+        try {
+            update(index, data, receivedNanos, slot);
+        } catch (Exception ex) {
+            log.error("Pyth update decode error for " + priceCache.getSymbol(index) + ": " + ex.getMessage());
+        }
     }
 
     @Scheduled(fixedRate = 190L)
     public void updateSolPriceCache() {
-        final PriceDataAccount priceDataAccount = pythManager.getPriceDataAccount(solUsdPriceDataAccount);
+        if (isLive()) {
+            return;
+        }
+        // Raw call instead of PythManager or RpcApi, so the account bytes and context slot can be journaled
+        final MultipleAccountsDecoder.Accounts result;
+        try {
+            result = dataRpcClient.callRaw("getMultipleAccounts", pollParams, MultipleAccountsDecoder::decode);
+        } catch (RpcException e) {
+            log.debug("Pyth load error: " + e.getMessage());
+            return;
+        }
+        long receivedNanos = System.nanoTime();
+        for (int i = 0; i < result.size() && i < priceCache.size(); i++) {
+            byte[] data = result.get(i);
+            if (data == null) {
+                continue;
+            }
+            if (i == solIndex) {
+                journal.record(JournalRecordType.PYTH_PRICE, result.getSlot(), receivedNanos,
+                        dataRpcClient.getLastEndpoint(), data);
+            }
+            update(i, data, receivedNanos, result.getSlot());
+        }
+    }
+
+    /**
+     * @param receivedSlot context slot the data was read at, -1 if unknown
+     */
+    private void update(int index, byte[] priceAccountData, long receivedNanos, long receivedSlot) {
+        if (!priceCache.update(index, priceAccountData, receivedNanos)) {
+            return;
+        }
+        OraclePrice price = priceCache.get(index);
+        if (receivedSlot >= 0) {
+            // Pyth prices carry a publish slot, not a time
+            latency.recordPublishToReceive(TimeUnit.MILLISECONDS.toNanos(
+                    (receivedSlot - price.getPublishSlot()) * OpenBookConfig.SLOT_DURATION_MS));
+        }
+        listeners.fire(priceCache.getSymbol(index), price);
+    }
+
+    /**
+     * Updates the cached SOL/USD price from raw price account data. Updates published at an older slot than the
+     * cached price, e.g. a poll racing the socket, are ignored.
+     *
+     * @param receivedNanos when the data arrived
+     */
+    public void updateSolPrice(byte[] priceAccountData, long receivedNanos) {
+        update(solIndex, priceAccountData, receivedNanos, -1L);
+    }
+
+    /**
+     * @return latest SOL/USD price, null before the first update. Read it once per decision, price and
+     * confidence come from the same update
+     */
+    public OraclePrice getSolPrice() {
+        return priceCache.get(solIndex);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return latest price of a configured feed, null before its first update or if not configured
+     */
+    @Override
+    public OraclePrice getPrice(String symbol) {
+        return priceCache.get(symbol);
+    }
 
-        solPrice = Optional.of(priceDataAccount.getAggregatePriceInfo().getPrice());
-        solPriceConfidence = Optional.of(priceDataAccount.getAggregatePriceInfo().getConfidence());
+    @Override
+    public void addListener(PriceListener listener) {
+        listeners.add(listener);
+    }
+
+    public PythPriceCache getPriceCache() {
+        return priceCache;
+    }
+
+    public PriceLatencyTracker.Source getLatency() {
+        return latency;
     }
 
     public double getSolBidPrice() {
-        if (solPrice.isPresent() && solPriceConfidence.isPresent()) {
-            return solPrice.get() - solPriceConfidence.get();
-        } else {
-            return 0.0;
-        }
+        OraclePrice price = getSolPrice();
+        return price != null ? price.getBid() : 0.0;
     }
 
     public double getSolAskPrice() {
-        if (solPrice.isPresent() && solPriceConfidence.isPresent()) {
-            return solPrice.get() + solPriceConfidence.get();
-        } else {
-            return 999999.9;
-        }
+        OraclePrice price = getSolPrice();
+        return price != null ? price.getAsk() : 999999.9;
     }
 
     public Optional<Float> getSolMidpointPrice() {
-        return solPrice;
+        OraclePrice price = getSolPrice();
+        return price != null ? Optional.of(price.getPrice()) : Optional.empty();
     }
 
     public Optional<Float> getSolPriceConfidence() {
-        return solPriceConfidence;
+        OraclePrice price = getSolPrice();
+        return price != null ? Optional.of(price.getConfidence()) : Optional.empty();
+    }
+
+    public long getSolPricePublishSlot() {
+        OraclePrice price = getSolPrice();
+        return price != null ? price.getPublishSlot() : -1L;
+    }
+
+    public long getSolPriceReceivedNanos() {
+        OraclePrice price = getSolPrice();
+        return price != null ? price.getReceivedNanos() : 0L;
     }
 
     public boolean hasSolPrice() {
-        return solPrice.isPresent() && solPriceConfidence.isPresent();
+        return getSolPrice() != null;
     }
 
 }
@@ -0,0 +1,245 @@
+package com.mmorrell.pricing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.journal.MarketDataJournalReader;
+import com.mmorrell.pyth.model.PriceDataAccount;
+import com.mmorrell.pyth.model.PriceInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Stub {@link PricingSource} playing back recorded ticks, to load test and benchmark strategies offline.
+ * <p>
+ * Ticks are loaded from CSV files, {@code receivedNanos,symbol,price,confidence,slot} per line, and from the
+ * Pyth and Jupiter records of market data journals, then replayed in recorded order: one at a time, flat out, or
+ * at any multiple of the recorded pace. Replayed quotes are stamped with the replay's time source, so strategies
+ * measure their age as they would live.
+ * <p>
+ * Loading and replaying belong to one thread; quotes and listeners work as in any other source.
+ */
+@Slf4j
+public class ReplayPricingSource implements PricingSource {
+
+    private final String name;
+    private final LongSupplier nanoTime;
+    private final PriceListeners listeners;
+    private final Map<String, OraclePrice> prices = new ConcurrentHashMap<>();
+    private final List<Tick> ticks = new ArrayList<>();
+    private int position;
+    // A tick was added out of recorded order since the last sort
+    private boolean unsorted;
+
+    public ReplayPricingSource(String name) {
+        this(name, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime stamps replayed quotes, e.g. a simulated clock
+     */
+    public ReplayPricingSource(String name, LongSupplier nanoTime) {
+        this.name = name;
+        this.nanoTime = nanoTime;
+        this.listeners = new PriceListeners(name);
+    }
+
+    /**
+     * Adds a tick. Ticks not yet replayed are replayed in recorded time order, whatever order they're added in.
+     */
+    public void add(long recordedNanos, String symbol, float price, float confidence, long slot) {
+        if (!ticks.isEmpty() && recordedNanos < ticks.get(ticks.size() - 1).recordedNanos) {
+            unsorted = true;
+        }
+        ticks.add(new Tick(recordedNanos, symbol, price, confidence, slot));
+    }
+
+    /**
+     * Loads a CSV file of ticks. Blank lines, lines starting with {@code #} and a header line are skipped.
+     *
+     * @return number of ticks loaded
+     */
+    public int loadCsv(Path file) throws IOException {
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("receivedNanos")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 5) {
+                    throw new IOException(file + ":" + lineNumber
+                            + " isn't receivedNanos,symbol,price,confidence,slot");
+                }
+                try {
+                    add(Long.parseLong(fields[0].trim()),
+                            fields[1].trim(),
+                            Float.parseFloat(fields[2].trim()),
+                            Float.parseFloat(fields[3].trim()),
+                            Long.parseLong(fields[4].trim()));
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + " " + e.getMessage());
+                }
+                loaded++;
+            }
+        }
+        log.info("Loaded " + loaded + " ticks from " + file.getFileName());
+        return loaded;
+    }
+
+    /**
+     * Loads the price records of journal files: Pyth SOL/USD publishes, and every price of each Jupiter response
+     * with {@link OpenBookConfig#JUPITER_CONFIDENCE}. Other records are skipped.
+     *
+     * @return number of ticks loaded
+     */
+    public int loadJournal(List<Path> files) throws IOException {
+        JupiterPriceDecoder jupiterDecoder = new JupiterPriceDecoder(new JsonFactory());
+        int loaded = 0;
+        for (Path file : files) {
+            MarketDataJournalReader reader = new MarketDataJournalReader(file);
+            // Receive times as wall clock time, so files of different runs line up
+            long fileStartEpochNanos = TimeUnit.MILLISECONDS.toNanos(reader.getFileStartMillis());
+            while (reader.next()) {
+                long recordedNanos = fileStartEpochNanos + (reader.getReceivedNanos() - reader.getFileStartNanos());
+                switch (reader.getType()) {
+                    case PYTH_PRICE:
+                        PriceInfo aggregate = PriceDataAccount.readPriceDataAccount(reader.getData())
+                                .getAggregatePriceInfo();
+                        add(recordedNanos, OpenBookConfig.PYTH_SOL_SYMBOL, aggregate.getPrice(),
+                                aggregate.getConfidence(), aggregate.getPublishSlot());
+                        loaded++;
+                        break;
+                    case JUPITER_PRICE:
+                        loaded += jupiterDecoder.decode(reader.getData(), (id, price) -> add(recordedNanos, id,
+                                (float) price, (float) (price * OpenBookConfig.JUPITER_CONFIDENCE), -1L));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        log.info("Loaded " + loaded + " ticks from " + files.size() + " journal files");
+        return loaded;
+    }
+
+    /**
+     * Publishes the next tick.
+     *
+     * @return false once every tick is replayed
+     */
+    public boolean next() {
+        if (position >= ticks.size()) {
+            return false;
+        }
+        sortRemaining();
+        Tick tick = ticks.get(position++);
+        OraclePrice price = new OraclePrice(tick.price, tick.confidence, tick.slot, nanoTime.getAsLong());
+        prices.put(tick.symbol, price);
+        listeners.fire(tick.symbol, price);
+        return true;
+    }
+
+    /**
+     * Replays the remaining ticks on the calling thread.
+     *
+     * @param speed multiple of the recorded pace, e.g. 10 for ten times faster; 0 or less for flat out
+     * @return number of ticks replayed
+     */
+    public int replay(double speed) {
+        int replayed = 0;
+        if (position >= ticks.size()) {
+            return replayed;
+        }
+        sortRemaining();
+        long firstRecordedNanos = ticks.get(position).recordedNanos;
+        long startNanos = System.nanoTime();
+        while (position < ticks.size()) {
+            if (speed > 0.0) {
+                long dueNanos = startNanos + (long) ((ticks.get(position).recordedNanos - firstRecordedNanos) / speed);
+                long waitNanos;
+                while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            }
+            next();
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void sortRemaining() {
+        if (unsorted) {
+            // Stable, ticks recorded at the same time keep their order
+            ticks.subList(position, ticks.size()).sort(Comparator.comparingLong(tick -> tick.recordedNanos));
+            unsorted = false;
+        }
+    }
+
+    /**
+     * Starts the replay over, keeping the latest quotes.
+     */
+    public void rewind() {
+        position = 0;
+    }
+
+    /**
+     * @return number of ticks loaded
+     */
+    public int size() {
+        return ticks.size();
+    }
+
+    /**
+     * @return number of ticks replayed since the start or the last rewind
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public OraclePrice getPrice(String symbol) {
+        return prices.get(symbol);
+    }
+
+    @Override
+    public void addListener(PriceListener listener) {
+        listeners.add(listener);
+    }
+
+    private static final class Tick {
+        private final long recordedNanos;
+        private final String symbol;
+        private final float price;
+        private final float confidence;
+        private final long slot;
+
+        private Tick(long recordedNanos, String symbol, float price, float confidence, long slot) {
+            this.recordedNanos = recordedNanos;
+            this.symbol = symbol;
+            this.price = price;
+            this.confidence = confidence;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mmorrell.strategies;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * An order a strategy decided to place, captured instead of sent when replaying.
+ */
+@Getter
+public class QuoteDecision {
+
+    private final Instant time;
+    private final boolean bid;
+    /**
+     * Price the quoting logic asked for.
+     */
+    private final float price;
+    /**
+     * Price the order would have been sent at, after smoothing.
+     */
+    private final float orderPrice;
+    private final float quantity;
+    /**
+     * True if the order would have replaced (cancelled) the resting one.
+     */
+    private final boolean cancel;
+
+    public QuoteDecision(Instant time, boolean bid, float price, float orderPrice, float quantity, boolean cancel) {
+        this.time = time;
+        this.bid = bid;
+        this.price = price;
+        this.orderPrice = orderPrice;
+        this.quantity = quantity;
+        this.cancel = cancel;
+    }
+
+    @Override
+    public String toString() {
+        return time + "," + (bid ? "bid" : "ask") + "," + price + "," + orderPrice + "," + quantity + "," + cancel;
+    }
+}
@@ -1,14 +1,18 @@
 package com.mmorrell.strategies.openbook.eth;
 
 import com.mmorrell.SerumApplication;
+import com.mmorrell.marketdata.MarketDataService;
+import com.mmorrell.marketdata.book.MarketLots;
+import com.mmorrell.marketdata.book.OwnerIndex;
+import com.mmorrell.marketdata.book.SlabView;
 import com.mmorrell.serum.manager.SerumManager;
 import com.mmorrell.serum.model.Market;
-import com.mmorrell.serum.model.MarketBuilder;
 import com.mmorrell.serum.model.Order;
 import com.mmorrell.serum.model.OrderTypeLayout;
 import com.mmorrell.serum.model.SelfTradeBehaviorLayout;
 import com.mmorrell.serum.program.SerumProgram;
 import com.mmorrell.strategies.Strategy;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -58,7 +62,9 @@ public class OpenBookEthUsdcJump extends Strategy {
     // Finals
     private final Account mmAccount;
     private final Market solUsdcMarket;
-    private final MarketBuilder solUsdcMarketBuilder;
+    private final MarketDataService marketDataService;
+    private final MarketDataService.Subscription marketData;
+    private final OwnerIndex ownerIndex;
     public static final PublicKey MARKET_ID =
             new PublicKey("FZxi3yWkE5mMjyaZj6utmYL54QQYfMCKMcLaQZq4UwnA");
 
@@ -82,25 +88,28 @@ public class OpenBookEthUsdcJump extends Strategy {
     private static Optional<Double> USDC_BALANCE = Optional.empty();
     private static Optional<Double> ETH_BALANCE = Optional.empty();
 
-    private Market marketPricingSource;
+    // Another market's book to price off, shared through MarketDataService. Swapped whole from the caller's
+    // thread, read once per event loop
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile PricingBook pricingBook;
 
     // Used to delay 2000ms on first order place.
     private static boolean firstLoadComplete = false;
 
     public OpenBookEthUsdcJump(final SerumManager serumManager,
-                               final RpcClient rpcClient) {
+                               final RpcClient rpcClient,
+                               final MarketDataService marketDataService) {
         this.executorService = Executors.newSingleThreadScheduledExecutor();
 
         this.serumManager = serumManager;
         this.rpcClient = rpcClient;
+        this.marketDataService = marketDataService;
 
-        this.solUsdcMarketBuilder = new MarketBuilder()
-                .setClient(rpcClient)
-                .setPublicKey(MARKET_ID)
-                .setRetrieveOrderBooks(true);
-        this.solUsdcMarket = this.solUsdcMarketBuilder.build();
-        this.bestBidPrice = this.solUsdcMarket.getBidOrderBook().getBestBid().getFloatPrice();
-        this.bestAskPrice = this.solUsdcMarket.getAskOrderBook().getBestAsk().getFloatPrice();
+        // Books are polled by the shared feed, at least once per event loop
+        this.marketData = marketDataService.subscribe(MARKET_ID, EVENT_LOOP_DURATION_MS);
+        this.solUsdcMarket = marketData.getMarket();
+        this.ownerIndex = ownerIndex(solUsdcMarket);
 
         // Load private key
         ClassPathResource resource = new ClassPathResource(
@@ -117,6 +126,37 @@ public class OpenBookEthUsdcJump extends Strategy {
 
     }
 
+    /**
+     * Prices off another market's book instead of our own, null to go back.
+     */
+    public synchronized void setMarketPricingSource(PublicKey marketId) {
+        PricingBook previous = pricingBook;
+        if (marketId == null) {
+            pricingBook = null;
+        } else {
+            MarketDataService.Subscription subscription = marketDataService.subscribe(marketId,
+                    EVENT_LOOP_DURATION_MS);
+            pricingBook = new PricingBook(subscription, ownerIndex(subscription.getMarket()));
+        }
+        if (previous != null) {
+            // On the event loop's thread, after any loop still using it
+            executorService.execute(previous.subscription::close);
+        }
+    }
+
+    // Only our orders are classified, no fish/sharps/ASX on this market
+    private static OwnerIndex ownerIndex(Market market) {
+        return new OwnerIndex(
+                MarketLots.forMarket(market),
+                SlabView.ownerWords(MARKET_OOA),
+                new long[0][],
+                new long[0][],
+                new long[0][],
+                new long[4],
+                Float.MAX_VALUE
+        );
+    }
+
     @Override
     public void start() {
         log.info(this.getClass().getSimpleName() + " started.");
@@ -127,23 +167,23 @@ public class OpenBookEthUsdcJump extends Strategy {
         executorService.scheduleAtFixedRate(
                 () -> {
                     try {
-                        // Get latest prices
-                        solUsdcMarket.reload(solUsdcMarketBuilder);
-
-                        Order bestBid, bestAsk;
-                        if (marketPricingSource != null) {
-                            bestBid = marketPricingSource.getBidOrderBook().getBestBid();
-                            bestAsk = marketPricingSource.getAskOrderBook().getBestAsk();
-                        } else {
-                            bestBid = solUsdcMarket.getBidOrderBook().getBestBid();
-                            bestAsk = solUsdcMarket.getAskOrderBook().getBestAsk();
+                        // Latest books from the shared feed
+                        if (!ownerIndex.update(marketData.getSnapshot().get())) {
+                            return;
+                        }
+                        OwnerIndex pricing = ownerIndex;
+                        final PricingBook pricingBook = this.pricingBook;
+                        if (pricingBook != null) {
+                            if (!pricingBook.index.update(pricingBook.subscription.getSnapshot().get())) {
+                                return;
+                            }
+                            pricing = pricingBook.index;
                         }
 
-                        this.bestBidPrice = bestBid.getFloatPrice();
-                        this.bestAskPrice = bestAsk.getFloatPrice();
+                        this.bestBidPrice = pricing.getBids().getAll().bestFloatPrice();
+                        this.bestAskPrice = pricing.getAsks().getAll().bestFloatPrice();
 
-                        boolean isCancelBid =
-                                solUsdcMarket.getBidOrderBook().getOrders().stream().anyMatch(order -> order.getOwner().equals(MARKET_OOA));
+                        boolean isCancelBid = ownerIndex.getBids().getOurOrderCount() > 0;
 
                         float percentageChangeFromLastBid =
                                 1.00f - (lastPlacedBidPrice / ((float) bestBidPrice * BID_SPREAD_MULTIPLIER));
@@ -154,8 +194,7 @@ public class OpenBookEthUsdcJump extends Strategy {
                             lastPlacedBidPrice = (float) bestBidPrice * BID_SPREAD_MULTIPLIER;
                         }
 
-                        boolean isCancelAsk =
-                                solUsdcMarket.getAskOrderBook().getOrders().stream().anyMatch(order -> order.getOwner().equals(MARKET_OOA));
+                        boolean isCancelAsk = ownerIndex.getAsks().getOurOrderCount() > 0;
 
                         float percentageChangeFromLastAsk =
                                 1.00f - (lastPlacedAskPrice / ((float) bestAskPrice * ASK_SPREAD_MULTIPLIER));
@@ -417,4 +456,16 @@ public class OpenBookEthUsdcJump extends Strategy {
         }
     }
 
+    /**
+     * Pricing market's feed and its index, published together so the loop never sees one without the other.
+     */
+    private static final class PricingBook {
+        private final MarketDataService.Subscription subscription;
+        private final OwnerIndex index;
+
+        private PricingBook(MarketDataService.Subscription subscription, OwnerIndex index) {
+            this.subscription = subscription;
+            this.index = index;
+        }
+    }
 }
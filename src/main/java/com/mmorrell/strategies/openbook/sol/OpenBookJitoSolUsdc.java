@@ -3,7 +3,10 @@ package com.mmorrell.strategies.openbook.sol;
 import com.google.common.collect.ImmutableList;
 import com.mmorrell.SerumApplication;
 import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.pricing.FairValue;
+import com.mmorrell.pricing.FairValueEngine;
 import com.mmorrell.pricing.JupiterPricingSource;
+import com.mmorrell.pricing.LstFairValue;
 import com.mmorrell.pricing.PythPricingSource;
 import com.mmorrell.serum.manager.SerumManager;
 import com.mmorrell.serum.model.MarketBuilder;
@@ -45,6 +48,7 @@ import static com.mmorrell.config.OpenBookConfig.ALLOWED_PRICING_BPS_MISMATCH;
 import static com.mmorrell.config.OpenBookConfig.ASK_API_TUNING_FACTOR;
 import static com.mmorrell.config.OpenBookConfig.BID_API_TUNING_FACTOR;
 import static com.mmorrell.config.OpenBookConfig.CROSS_DETECTION_PADDING;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_MAX_SOURCE_AGE_MS;
 import static com.mmorrell.config.OpenBookConfig.JITOSOL_USDC_MARKET_ID;
 import static com.mmorrell.config.OpenBookConfig.KNOWN_FISH;
 import static com.mmorrell.config.OpenBookConfig.KNOWN_SHARPS;
@@ -52,6 +56,7 @@ import static com.mmorrell.config.OpenBookConfig.MIN_MIDPOINT_CHANGE;
 import static com.mmorrell.config.OpenBookConfig.NEW_ORDER_DELAY_DURATION_SECONDS;
 import static com.mmorrell.config.OpenBookConfig.PRIORITY_MICRO_LAMPORTS;
 import static com.mmorrell.config.OpenBookConfig.PRIORITY_UNITS;
+import static com.mmorrell.config.OpenBookConfig.PYTH_JITOSOL_SYMBOL;
 import static com.mmorrell.config.OpenBookConfig.SOL_ASK_AMOUNT;
 import static com.mmorrell.config.OpenBookConfig.USDC_BID_AMOUNT_IN_WSOL;
 import static com.mmorrell.config.OpenBookConfig.jitoSolUsdcMarket;
@@ -67,6 +72,7 @@ public class OpenBookJitoSolUsdc extends Strategy {
     private final ExecutorService orderExecutorService = Executors.newFixedThreadPool(2);
     private final PythPricingSource pythPricingSource;
     private final JupiterPricingSource jupiterPricingSource;
+    private final LstFairValue fairValue;
     private double bestBidPrice;
     private double bestAskPrice;
     private float lastPlacedBidPrice = 0.0f, lastPlacedAskPrice = 0.0f;
@@ -85,13 +91,16 @@ public class OpenBookJitoSolUsdc extends Strategy {
                                final RpcClient rpcClient,
                                @Qualifier("data") final RpcClient dataRpcClient,
                                final PythPricingSource pythPricingSource,
-                               final JupiterPricingSource jupiterPricingSource) {
+                               final JupiterPricingSource jupiterPricingSource,
+                               final FairValueEngine fairValueEngine) {
         this.executorService = Executors.newScheduledThreadPool(2);
         this.serumManager = serumManager;
         this.rpcClient = rpcClient;
         this.dataRpcClient = dataRpcClient;
         this.pythPricingSource = pythPricingSource;
         this.jupiterPricingSource = jupiterPricingSource;
+        this.fairValue = new LstFairValue(fairValueEngine, "JitoSOL/USDC", PYTH_JITOSOL_SYMBOL, JUP_SYMBOL,
+                pythPricingSource, jupiterPricingSource);
         OpenBookConfig.mmAccount = readMmAccountFromPrivateKey();
         OpenBookConfig.jitoSolUsdcMarketBuilder = new MarketBuilder()
                 .setClient(dataRpcClient)
@@ -114,11 +123,15 @@ public class OpenBookJitoSolUsdc extends Strategy {
             askOrderBook = jitoSolUsdcMarket.getAskOrderBook();
             askOrders = ImmutableList.copyOf(askOrderBook.getOrders());
 
-            Optional<Double> jupiterPrice = jupiterPricingSource.getCachedPrice(JUP_SYMBOL);
-            if (jupiterPrice.isEmpty()) {
+            // Blend led by SOL/USDC fair value times the LST/SOL rate, moving with every SOL update, plus the Pyth
+            // feed, when configured, and Jupiter
+            fairValue.update();
+            final FairValue currentFairValue = fairValue.getFairValue();
+            if (currentFairValue == null || System.nanoTime() - currentFairValue.getTimeNanos() >
+                    TimeUnit.MILLISECONDS.toNanos(FAIR_VALUE_MAX_SOURCE_AGE_MS)) {
                 return;
             }
-            pythSolPrice = Optional.of(jupiterPrice.get().floatValue());
+            pythSolPrice = Optional.of((float) currentFairValue.getPrice());
             final Optional<Order> topOfBookFish = askOrders.stream()
                     .filter(order -> KNOWN_FISH.contains(order.getOwner()))
                     .min((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()));
@@ -502,12 +515,4 @@ public class OpenBookJitoSolUsdc extends Strategy {
                 TimeUnit.MILLISECONDS
         );
     }
-
-    @Scheduled(fixedRate = 10_000L)
-    public void jupiterPriceUpdateLoop() {
-        String symbol = JUP_SYMBOL;
-        Optional<Double> orcaPrice = jupiterPricingSource.getUsdcPriceForSymbol(symbol, 500);
-        orcaPrice.ifPresent(aDouble -> jupiterPricingSource.updatePriceMap(symbol, aDouble));
-        orcaPrice.ifPresent(aDouble -> log.info(symbol + " Price: " + aDouble));
-    }
 }
@@ -1,21 +1,46 @@
 package com.mmorrell.strategies.openbook.sol;
 
-import com.google.common.collect.ImmutableList;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mmorrell.SerumApplication;
 import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.AdaptivePollRate;
+import com.mmorrell.marketdata.BookStaleness;
+import com.mmorrell.marketdata.EventQueueReader;
+import com.mmorrell.marketdata.HedgedRpcClient;
+import com.mmorrell.marketdata.MarketAccounts;
+import com.mmorrell.marketdata.MarketAccountsFetcher;
+import com.mmorrell.marketdata.MarketEvent;
+import com.mmorrell.marketdata.MarketDataService;
+import com.mmorrell.marketdata.MarketSnapshot;
+import com.mmorrell.marketdata.MarketSnapshotReference;
+import com.mmorrell.marketdata.OrderBookWebSocketFeed;
+import com.mmorrell.marketdata.PollBudget;
+import com.mmorrell.marketdata.SlotVersionedReference;
+import com.mmorrell.marketdata.book.BookSignals;
+import com.mmorrell.marketdata.book.MarketLots;
+import com.mmorrell.marketdata.book.OwnerIndex;
+import com.mmorrell.marketdata.book.PriceLevelBook;
+import com.mmorrell.marketdata.book.SlabView;
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.marketdata.replay.SimulatedClock;
+import com.mmorrell.pricing.EwmaVolatility;
+import com.mmorrell.pricing.FairValueEngine;
+import com.mmorrell.pricing.OraclePrice;
 import com.mmorrell.pricing.PythPricingSource;
 import com.mmorrell.serum.manager.SerumManager;
-import com.mmorrell.serum.model.MarketBuilder;
+import com.mmorrell.serum.model.Market;
 import com.mmorrell.serum.model.Order;
-import com.mmorrell.serum.model.OrderBook;
 import com.mmorrell.serum.model.OrderTypeLayout;
 import com.mmorrell.serum.model.SelfTradeBehaviorLayout;
 import com.mmorrell.serum.model.SerumUtils;
 import com.mmorrell.serum.program.SerumProgram;
+import com.mmorrell.strategies.QuoteDecision;
 import com.mmorrell.strategies.Strategy;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
 import org.p2p.solanaj.core.Account;
 import org.p2p.solanaj.core.PublicKey;
 import org.p2p.solanaj.core.Transaction;
@@ -33,7 +58,9 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayDeque;
@@ -47,6 +74,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import static com.mmorrell.config.OpenBookConfig.ADVERSITY_BASE_PRIORITY_RATE_TO_ADD;
 import static com.mmorrell.config.OpenBookConfig.ADVERSITY_BASE_REDUCTION;
@@ -55,29 +85,47 @@ import static com.mmorrell.config.OpenBookConfig.ASK_API_TUNING_FACTOR;
 import static com.mmorrell.config.OpenBookConfig.ASK_SPREAD_MULTIPLIER;
 import static com.mmorrell.config.OpenBookConfig.BID_API_TUNING_FACTOR;
 import static com.mmorrell.config.OpenBookConfig.BID_SPREAD_MULTIPLIER;
+import static com.mmorrell.config.OpenBookConfig.CLUSTER_SLOT_POLL_INTERVAL;
 import static com.mmorrell.config.OpenBookConfig.CROSS_DETECTION_PADDING;
 import static com.mmorrell.config.OpenBookConfig.DEFAULT_ASK_SPREAD_MULTIPLIER;
 import static com.mmorrell.config.OpenBookConfig.DEFAULT_BID_SPREAD_MULTIPLIER;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_HALF_LIFE_MS;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_MAX_SOURCE_AGE_MS;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_WEIGHT_BOOK;
+import static com.mmorrell.config.OpenBookConfig.FAIR_VALUE_WEIGHT_PYTH;
 import static com.mmorrell.config.OpenBookConfig.GIGA_LEANING;
 import static com.mmorrell.config.OpenBookConfig.IS_WSOL_LEANING;
 import static com.mmorrell.config.OpenBookConfig.KNOWN_FISH;
 import static com.mmorrell.config.OpenBookConfig.KNOWN_SHARPS;
+import static com.mmorrell.config.OpenBookConfig.LIVE_FEED_POLL_INTERVAL;
 import static com.mmorrell.config.OpenBookConfig.MIN_MIDPOINT_CHANGE;
 import static com.mmorrell.config.OpenBookConfig.NEW_ORDER_DELAY_DURATION_SECONDS;
+import static com.mmorrell.config.OpenBookConfig.ORDER_BOOK_POLL_CEILING;
+import static com.mmorrell.config.OpenBookConfig.ORDER_BOOK_POLL_FLOOR;
 import static com.mmorrell.config.OpenBookConfig.PRIORITY_MICRO_LAMPORTS;
 import static com.mmorrell.config.OpenBookConfig.PRIORITY_MICRO_LAMPORTS_DEFAULT;
 import static com.mmorrell.config.OpenBookConfig.PRIORITY_UNITS;
 import static com.mmorrell.config.OpenBookConfig.PYTH_CONFIDENCE_INTERVAL_CONFIDENCE;
 import static com.mmorrell.config.OpenBookConfig.PYTH_PREDICTIVE_FACTOR;
 import static com.mmorrell.config.OpenBookConfig.PYTH_PREDICTIVE_FACTOR_BIDS;
+import static com.mmorrell.config.OpenBookConfig.SIGNAL_DEPTH_LEVELS;
+import static com.mmorrell.config.OpenBookConfig.SIGNAL_HORIZON_MS;
+import static com.mmorrell.config.OpenBookConfig.SIGNAL_IMBALANCE_CHANGE_WEIGHT;
+import static com.mmorrell.config.OpenBookConfig.SIGNAL_MAX_SKEW;
+import static com.mmorrell.config.OpenBookConfig.SIGNAL_MICROPRICE_WEIGHT;
 import static com.mmorrell.config.OpenBookConfig.SOL_ASK_AMOUNT;
 import static com.mmorrell.config.OpenBookConfig.SOL_QUOTE_SIZE;
+import static com.mmorrell.config.OpenBookConfig.SOL_USDC_FAIR_VALUE_MARKET;
 import static com.mmorrell.config.OpenBookConfig.SOL_USDC_MARKET_ID;
 import static com.mmorrell.config.OpenBookConfig.SPACE_MONKEY;
 import static com.mmorrell.config.OpenBookConfig.START_SOL_PRICE;
 import static com.mmorrell.config.OpenBookConfig.TARGET_MAX_UNITS;
 import static com.mmorrell.config.OpenBookConfig.USDC_BID_AMOUNT_IN_WSOL;
 import static com.mmorrell.config.OpenBookConfig.USDC_THRESHOLD_TO_LEAN_WSOL;
+import static com.mmorrell.config.OpenBookConfig.VOLATILITY_FREE_MOVE;
+import static com.mmorrell.config.OpenBookConfig.VOLATILITY_HALF_LIVES_MS;
+import static com.mmorrell.config.OpenBookConfig.VOLATILITY_MAX_WIDEN;
+import static com.mmorrell.config.OpenBookConfig.VOLATILITY_QUOTE_HORIZON_MS;
 import static com.mmorrell.config.OpenBookConfig.generateLeanFactor;
 import static com.mmorrell.config.OpenBookConfig.getPriorityMicroLamports;
 import static com.mmorrell.config.OpenBookConfig.solUsdcMarket;
@@ -87,24 +135,65 @@ import static com.mmorrell.config.OpenBookConfig.solUsdcMarket;
 @Getter
 public class OpenBookSolUsdc extends Strategy {
     private final RpcClient rpcClient;
-    private final RpcClient dataRpcClient;
+    private final HedgedRpcClient dataRpcClient;
     private final SerumManager serumManager;
     private final ScheduledExecutorService executorService;
     private final ExecutorService orderExecutorService = Executors.newFixedThreadPool(64);
     private final PythPricingSource pythPricingSource;
+    private final OkHttpClient okHttpClient;
+    private final ObjectMapper objectMapper;
+    private final MarketDataJournal journal;
+    // SOL/USDC fair value, fed from Pyth and the book as each changes
+    private final FairValueEngine.Market fairValue;
+    private final FairValueEngine.Source pythFairValueSource;
+    private final FairValueEngine.Source bookFairValueSource;
+    private long fairValuePythSlot = -1L;
+    // Realized volatility of Pyth ticks and book mids, widens both quotes
+    private final EwmaVolatility pythVolatility = new EwmaVolatility(VOLATILITY_HALF_LIVES_MS);
+    private final EwmaVolatility bookVolatility = new EwmaVolatility(VOLATILITY_HALF_LIVES_MS);
+    private OrderBookWebSocketFeed orderBookFeed;
+    private MarketAccountsFetcher accountsFetcher;
+    private EventQueueReader eventQueueReader;
+    private volatile long lastFetchNanos = 0L;
+    // Polls faster while the book changes, within the data endpoint's budget
+    private final AdaptivePollRate bookPollRate = new AdaptivePollRate(ORDER_BOOK_POLL_FLOOR, ORDER_BOOK_POLL_CEILING);
+    private final PollBudget pollBudget;
+    private final SlotVersionedReference<MarketAccounts> latestAccounts = new SlotVersionedReference<>();
     private double bestBidPrice;
     private double bestAskPrice;
     private float lastPlacedBidPrice = 0.0f, lastPlacedAskPrice = 0.0f;
-    private static Instant bidAdversityTimestamp = Instant.now();
-    private static Instant askAdversityTimestamp = Instant.now();
-    private static Instant lastHardCancelBidTimestamp = Instant.now();     // Hard cancel timers
-    private static Instant lastHardCancelAskTimestamp = Instant.now();
-    private static Instant lastBidTimestamp = Instant.now();
-    private static Instant lastAskTimestamp = Instant.now();
-    private static final Deque<Float> smaValues = new ArrayDeque<>(5);
-    private static final Deque<Float> askSmaValues = new ArrayDeque<>(4);
-    private List<Order> bidOrders;
-    private List<Order> askOrders;
+    // Timers read this clock, simulated when replaying
+    private final Clock clock;
+    // Time source of snapshot receivedNanos
+    private final LongSupplier nanoTime;
+    private BookStaleness bookStaleness;
+    private boolean quotesPulled = false;
+    private final AtomicLong fetchErrorCount = new AtomicLong();
+    private Instant bidAdversityTimestamp = Instant.now();
+    private Instant askAdversityTimestamp = Instant.now();
+    private Instant lastHardCancelBidTimestamp = Instant.now();     // Hard cancel timers
+    private Instant lastHardCancelAskTimestamp = Instant.now();
+    private Instant lastBidTimestamp = Instant.now();
+    private Instant lastAskTimestamp = Instant.now();
+    private final Deque<Float> smaValues = new ArrayDeque<>(5);
+    private final Deque<Float> askSmaValues = new ArrayDeque<>(4);
+    // Replay only: receives order decisions instead of sending them
+    private final Consumer<QuoteDecision> quoteCapture;
+    private static final long[][] FISH_OWNERS = SlabView.ownerWords(KNOWN_FISH);
+    private static final long[][] SHARP_OWNERS = SlabView.ownerWords(KNOWN_SHARPS);
+    private static final long[][] ASK_SHARP_OWNERS = SlabView.ownerWords(askSharps());
+    private static final long[] SPACE_MONKEY_OWNER = SlabView.ownerWords(SPACE_MONKEY);
+    private static final float ASX_MIN_NOTIONAL = 700f;
+    // Both book sides, published whole by the feed/poller and read in place by the event loop. Shared through
+    // MarketDataService with any other strategy on SOL/USDC
+    private final MarketSnapshotReference marketSnapshot;
+    // Live only: tells the event loop to stop if the market's cached metadata turns out to be out of date
+    private final MarketDataService.Subscription marketData;
+    // Owner-classified levels of the latest snapshot, rebuilt only when a new one is published
+    private OwnerIndex ownerIndex;
+    // Microprice and imbalance of each new snapshot, skew both quotes
+    private final BookSignals bookSignals = new BookSignals(SIGNAL_DEPTH_LEVELS, SIGNAL_HORIZON_MS);
+    private long[] ooaOwner;
 
     @Value("${openbook.strategies.solusdc.ooa}")
     public String solUsdcOoa;
@@ -114,100 +203,282 @@ public class OpenBookSolUsdc extends Strategy {
     public String solUsdcQuoteWallet;
     private PublicKey solUsdcQuoteWalletPubkey;
 
+    @Value("${solana.data.ws.url}")
+    public String dataWsUrl;
+
+    @Value("${openbook.strategies.solusdc.websocket}")
+    public boolean useWebSocketFeed;
+
+    @Value("${openbook.strategies.solusdc.stale.book.ms}")
+    public long staleBookMs;
+
+    @Value("${openbook.strategies.solusdc.stale.book.slot.lag}")
+    public long staleBookSlotLag;
+
     public OpenBookSolUsdc(final SerumManager serumManager,
                            final RpcClient rpcClient,
-                           @Qualifier("data") final RpcClient dataRpcClient,
-                           final PythPricingSource pythPricingSource) {
+                           @Qualifier("data") final HedgedRpcClient dataRpcClient,
+                           final PythPricingSource pythPricingSource,
+                           final OkHttpClient okHttpClient,
+                           final ObjectMapper objectMapper,
+                           final MarketDataService marketDataService,
+                           final MarketDataJournal journal,
+                           final FairValueEngine fairValueEngine) {
         this.executorService = Executors.newScheduledThreadPool(128);
         this.serumManager = serumManager;
         this.rpcClient = rpcClient;
         this.dataRpcClient = dataRpcClient;
         this.pythPricingSource = pythPricingSource;
+        this.okHttpClient = okHttpClient;
+        this.objectMapper = objectMapper;
+        this.journal = journal;
+        this.fairValue = fairValueEngine.market(SOL_USDC_FAIR_VALUE_MARKET, FAIR_VALUE_HALF_LIFE_MS,
+                FAIR_VALUE_MAX_SOURCE_AGE_MS);
+        this.pythFairValueSource = fairValue.source("pyth", FAIR_VALUE_WEIGHT_PYTH);
+        this.bookFairValueSource = fairValue.source("book", FAIR_VALUE_WEIGHT_BOOK);
+        this.clock = Clock.systemUTC();
+        this.nanoTime = System::nanoTime;
+        this.quoteCapture = null;
         OpenBookConfig.mmAccount = readMmAccountFromPrivateKey();
         initializeWrappedSolAccount();
-        OpenBookConfig.solUsdcMarketBuilder = new MarketBuilder()
-                .setClient(dataRpcClient)
-                .setPublicKey(SOL_USDC_MARKET_ID)
-                //.setRetrieveEventQueue(true)
-                .setRetrieveOrderBooks(true);
-        solUsdcMarket = OpenBookConfig.solUsdcMarketBuilder.build();
-        this.bestBidPrice = solUsdcMarket.getBidOrderBook().getBestBid().getFloatPrice();
-        this.bestAskPrice = solUsdcMarket.getAskOrderBook().getBestAsk().getFloatPrice();
-        updateOb();
+        // Books come from updateOb() and the push feed, published into the shared snapshot
+        this.marketData = marketDataService.attach(SOL_USDC_MARKET_ID);
+        this.pollBudget = marketDataService.getPollBudget();
+        solUsdcMarket = marketData.getMarket();
+        this.marketSnapshot = marketData.getSnapshot();
+    }
+
+    /**
+     * Replay instance: no RPC, keys or transactions. The event loop's orders go to {@code quoteCapture} instead
+     * of being sent, and every timer reads {@code clock}. Snapshots must be published with
+     * {@link SimulatedClock#epochNanos()} as their receive time.
+     */
+    OpenBookSolUsdc(final Market market,
+                    final PublicKey ooa,
+                    final PythPricingSource pythPricingSource,
+                    final SimulatedClock clock,
+                    final Consumer<QuoteDecision> quoteCapture) {
+        this.executorService = null;
+        this.serumManager = null;
+        this.rpcClient = null;
+        this.dataRpcClient = null;
+        this.pythPricingSource = pythPricingSource;
+        this.okHttpClient = null;
+        this.objectMapper = null;
+        this.journal = MarketDataJournal.disabled();
+        this.fairValue = new FairValueEngine().market(SOL_USDC_FAIR_VALUE_MARKET, FAIR_VALUE_HALF_LIFE_MS,
+                FAIR_VALUE_MAX_SOURCE_AGE_MS);
+        this.pythFairValueSource = fairValue.source("pyth", FAIR_VALUE_WEIGHT_PYTH);
+        this.bookFairValueSource = fairValue.source("book", FAIR_VALUE_WEIGHT_BOOK);
+        this.pollBudget = null;
+        this.clock = clock;
+        this.nanoTime = clock::epochNanos;
+        this.quoteCapture = quoteCapture;
+        this.bookStaleness = new BookStaleness(OpenBookConfig.DEFAULT_STALE_BOOK_MS,
+                OpenBookConfig.DEFAULT_STALE_BOOK_SLOT_LAG);
+        solUsdcMarket = market;
+        this.marketSnapshot = new MarketSnapshotReference();
+        this.marketData = null;
+        this.solUsdcOoaPubkey = ooa;
+        Instant now = Instant.now(clock);
+        this.bidAdversityTimestamp = now;
+        this.askAdversityTimestamp = now;
+        this.lastHardCancelBidTimestamp = now;
+        this.lastHardCancelAskTimestamp = now;
+        this.lastBidTimestamp = now;
+        this.lastAskTimestamp = now;
+        initMarketData();
     }
 
     @PostConstruct
     public void init() {
         this.solUsdcOoaPubkey = new PublicKey(solUsdcOoa);
         this.solUsdcQuoteWalletPubkey = new PublicKey(solUsdcQuoteWallet);
+        this.bookStaleness = new BookStaleness(staleBookMs, staleBookSlotLag);
+        initMarketData();
         log.info("SOL/USDC OOA: " + solUsdcOoaPubkey.toBase58());
+        this.accountsFetcher = new MarketAccountsFetcher(
+                dataRpcClient,
+                solUsdcMarket,
+                solUsdcOoaPubkey,
+                OpenBookConfig.WSOL_BASE_WALLET,
+                solUsdcQuoteWalletPubkey
+        );
+        updateOb();
+        if (ownerIndex.update(marketSnapshot.get())) {
+            this.bestBidPrice = ownerIndex.getBids().getAll().bestFloatPrice();
+            this.bestAskPrice = ownerIndex.getAsks().getAll().bestFloatPrice();
+        }
+
+        if (useWebSocketFeed) {
+            orderBookFeed = new OrderBookWebSocketFeed(
+                    okHttpClient,
+                    objectMapper,
+                    dataWsUrl,
+                    solUsdcMarket.getBids(),
+                    solUsdcMarket.getAsks(),
+                    this::onOrderBookUpdate
+            );
+            orderBookFeed.start();
+        }
+    }
+
+    /**
+     * Feeds the fair value and volatility with the inputs that changed since the last loop: a new Pyth publish, a
+     * new book.
+     */
+    private void updateFairValue(MarketSnapshot snapshot, boolean isNewBook, OraclePrice pythSolPrice) {
+        if (pythSolPrice != null && pythSolPrice.getPublishSlot() != fairValuePythSlot) {
+            fairValuePythSlot = pythSolPrice.getPublishSlot();
+            pythFairValueSource.update(pythSolPrice.getPrice(), pythSolPrice.getConfidence(),
+                    pythSolPrice.getReceivedNanos());
+            pythVolatility.update(pythSolPrice.getPrice(), pythSolPrice.getReceivedNanos());
+        }
+        if (isNewBook) {
+            // Microprice, with half the spread as the book's confidence
+            float bid = ownerIndex.getBids().getOthers().bestFloatPrice();
+            float ask = ownerIndex.getAsks().getOthers().bestFloatPrice();
+            bookFairValueSource.update(bookSignals.getMicroprice(), Math.abs(ask - bid) / 2.0,
+                    snapshot.getReceivedNanos());
+            bookVolatility.update(bookSignals.getMid(), snapshot.getReceivedNanos());
+        }
+    }
+
+    /**
+     * @return fraction to move both quotes by: up while the book leans to the bid or bids are building, down
+     * otherwise, capped at {@link OpenBookConfig#SIGNAL_MAX_SKEW}
+     */
+    private double quoteSkew() {
+        double skew = SIGNAL_MICROPRICE_WEIGHT * bookSignals.getMicropriceSkew()
+                + SIGNAL_IMBALANCE_CHANGE_WEIGHT * bookSignals.getImbalanceChange() / 2.0;
+        return Math.max(-SIGNAL_MAX_SKEW, Math.min(SIGNAL_MAX_SKEW, skew));
+    }
+
+    /**
+     * @return fraction to widen each quote by: the expected move over a quote's life beyond what the default
+     * spreads cover, at the higher of Pyth and book volatility, capped at {@link OpenBookConfig#VOLATILITY_MAX_WIDEN}
+     */
+    private double volatilityWiden() {
+        double volatility = Math.max(pythVolatility.getMaxVolatility(), bookVolatility.getMaxVolatility());
+        double expectedMove = volatility * Math.sqrt(VOLATILITY_QUOTE_HORIZON_MS / 1_000.0);
+        return Math.max(0.0, Math.min(VOLATILITY_MAX_WIDEN, expectedMove - VOLATILITY_FREE_MOVE));
     }
 
-    private void solUsdcEventLoop() {
+    private void initMarketData() {
+        this.ooaOwner = SlabView.ownerWords(solUsdcOoaPubkey);
+        this.ownerIndex = new OwnerIndex(
+                MarketLots.forMarket(solUsdcMarket),
+                ooaOwner,
+                FISH_OWNERS,
+                SHARP_OWNERS,
+                ASK_SHARP_OWNERS,
+                SPACE_MONKEY_OWNER,
+                ASX_MIN_NOTIONAL
+        );
+        this.eventQueueReader = new EventQueueReader(solUsdcMarket, solUsdcOoaPubkey);
+        eventQueueReader.addListener(this::onMarketEvent);
+    }
+
+    private void onOrderBookUpdate(boolean isBid, byte[] data, long slot) {
+        long receivedNanos = System.nanoTime();
+        bookStaleness.observeSlot(slot);
+        journal.record(isBid ? JournalRecordType.BIDS : JournalRecordType.ASKS, slot, receivedNanos, dataWsUrl,
+                data);
+        if (!marketSnapshot.publishSide(isBid, data, slot, receivedNanos)) {
+            log.debug("Dropped out-of-order " + (isBid ? "bids" : "asks") + " @ " + slot);
+        }
+    }
+
+    private void onMarketEvent(MarketEvent event) {
+        if (!event.isOurs() || !event.isFill()) {
+            return;
+        }
+        log.info("SOL/USDC " + (event.isBid() ? "bid" : "ask") + " filled: " + event.getFloatQuantity() + " @ " +
+                event.getFloatPrice() + ", slot " + event.getSlot());
+        // Requote the filled side on the next tick instead of waiting for the balance poll
+        if (event.isBid()) {
+            lastPlacedBidPrice = 0f;
+        } else {
+            lastPlacedAskPrice = 0f;
+        }
+    }
+
+    private static List<PublicKey> askSharps() {
+        final List<PublicKey> askSharps = new ArrayList<>(KNOWN_SHARPS);
+        askSharps.add(PublicKey.valueOf("7pYyuhKrMTswQqZ9eXx813Qsx99yzvnbaUD3mUvX7wFm")); // ground
+        return askSharps;
+    }
+
+    void solUsdcEventLoop() {
         // Whole block synchronized, dont want diff states sent at same time. Orders are async/instant / non-blocking
         synchronized (this) {
-            OrderBook bidOrderBook;
-            OrderBook askOrderBook;
-            Optional<Float> pythSolPrice;
-            Optional<Float> pythSolPriceConfidence;
-            bidOrderBook = solUsdcMarket.getBidOrderBook();
-            bidOrders = ImmutableList.copyOf(bidOrderBook.getOrders());
-            askOrderBook = solUsdcMarket.getAskOrderBook();
-            askOrders = ImmutableList.copyOf(askOrderBook.getOrders());
-            pythSolPrice = pythPricingSource.getSolMidpointPrice(); //25
-            pythSolPriceConfidence = pythPricingSource.getSolPriceConfidence(); //0.03
-
-            final Order bestBid = bidOrderBook.getBestBid();
-            final Order bestAsk = askOrderBook.getBestAsk();
-            final Optional<Order> topOfBookFish = askOrders.stream()
-                    .filter(order -> KNOWN_FISH.contains(order.getOwner()))
-                    .min((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()));
-            this.bestBidPrice = bidOrders.stream()
-                    .filter(order -> !KNOWN_FISH.contains(order.getOwner()))
-                    .filter(order -> !order.getOwner().equals(solUsdcOoaPubkey)) // not us either
-                    .max((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()))
-                    .map(Order::getFloatPrice)
-                    .orElse(bestBid.getFloatPrice());
-            this.bestAskPrice = askOrders.stream()
-                    .filter(order -> !KNOWN_FISH.contains(order.getOwner()))
-                    .filter(order -> !order.getOwner().equals(solUsdcOoaPubkey)) // not us either
-                    .min((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()))
-                    .map(Order::getFloatPrice)
-                    .orElse(bestAsk.getFloatPrice());
-
-            if (topOfBookFish.isPresent()) {
-                Order fishOrder = topOfBookFish.get(); // Average it with the next best quote
-                if (fishOrder.getFloatPrice() <= bestAskPrice) {
-                    Optional<Order> topOfBookNotFish = askOrders.stream()
-                            .filter(order -> !KNOWN_FISH.contains(order.getOwner()))
-                            .filter(order -> !order.getOwner().equals(solUsdcOoaPubkey)) // not us either
-                            .min((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()));
-                    topOfBookNotFish.ifPresent(order -> this.bestAskPrice =
-                            (fishOrder.getFloatPrice() + order.getFloatPrice()) / 2.0);
+            // Fetchers, the feed and order instructions were all built from the old metadata
+            if (marketData != null && marketData.isMetadataChanged()) {
+                pullQuotes("market metadata changed on chain, halted until restart");
+                return;
+            }
+            final MarketSnapshot snapshot = marketSnapshot.get();
+            if (bookStaleness.check(snapshot, nanoTime.getAsLong())) {
+                pullQuotes("book stale (" + bookStaleness.getLastAgeMs() + "ms old, " +
+                        bookStaleness.getLastSlotLag() + " slots behind)");
+                return;
+            }
+            quotesPulled = false;
+            // Indexed once per published snapshot, every query below is a lookup
+            if (!ownerIndex.update(snapshot)) {
+                return;
+            }
+            final Instant now = Instant.now(clock);
+            final OwnerIndex.Side bids = ownerIndex.getBids();
+            final OwnerIndex.Side asks = ownerIndex.getAsks();
+            // One read, so price and confidence are from the same Pyth update
+            final OraclePrice pythSolPrice = pythPricingSource.getSolPrice(); //25 +/-0.03
+            if (pythSolPrice != null) {
+                pythPricingSource.getLatency()
+                        .recordReceiveToUse(nanoTime.getAsLong() - pythSolPrice.getReceivedNanos());
+            }
+            updateFairValue(snapshot, bookSignals.update(ownerIndex), pythSolPrice);
+            final float quoteSkew = 1.0f + (float) quoteSkew();
+            final float volatilityWiden = (float) volatilityWiden();
+
+            boolean isCancelBid = bids.getOurOrderCount() > 0;
+            float ourCurrentBid = bids.ourBestPrice(); // use this as our best bid
+            boolean isCancelAsk = asks.getOurOrderCount() > 0;
+            float ourCurrentAsk = asks.ourBestPrice(); // use this as our best ask
+
+            // not fish, not us either
+            this.bestBidPrice = bids.bestMarketPrice();
+            this.bestAskPrice = asks.bestMarketPrice();
+
+            if (!asks.getFish().isEmpty()) {
+                float topOfBookFish = asks.getFish().bestFloatPrice();
+                // Average it with the next best quote
+                if (topOfBookFish <= bestAskPrice && !asks.getMarket().isEmpty()) {
+                    this.bestAskPrice = (topOfBookFish + asks.getMarket().bestFloatPrice()) / 2.0;
                 }
             }
-            boolean isCancelBid, isReadyToNewBid, shouldCancelBid;
+            boolean isReadyToNewBid, shouldCancelBid;
             synchronized (this) {
-                isCancelBid = bidOrders.stream().anyMatch(order -> order.getOwner().equals(solUsdcOoaPubkey));
-                isReadyToNewBid = Math.abs(Duration.between(Instant.now(), lastBidTimestamp).toSeconds()) >=
+                isReadyToNewBid = Math.abs(Duration.between(now, lastBidTimestamp).toSeconds()) >=
                         NEW_ORDER_DELAY_DURATION_SECONDS;
                 shouldCancelBid = isCancelBid || !isReadyToNewBid;
             }
-            float nextPlacedBidPrice = (float) bestBidPrice * BID_SPREAD_MULTIPLIER;
-            if (pythSolPrice.isPresent() && pythSolPriceConfidence.isPresent()) {
-                float halfConfidence = pythSolPriceConfidence.get() * PYTH_CONFIDENCE_INTERVAL_CONFIDENCE;
-                float lowerBoundEstimation = pythSolPrice.get() - halfConfidence;
+            float nextPlacedBidPrice = (float) bestBidPrice * BID_SPREAD_MULTIPLIER * quoteSkew
+                    * (1.0f - volatilityWiden);
+            if (pythSolPrice != null) {
+                float halfConfidence = pythSolPrice.getConfidence() * PYTH_CONFIDENCE_INTERVAL_CONFIDENCE;
+                float lowerBoundEstimation = pythSolPrice.getPrice() - halfConfidence;
                 float pythSolPriceFloat = lowerBoundEstimation * (1.0f - PYTH_PREDICTIVE_FACTOR_BIDS); //DEJ
                 if (lastPlacedBidPrice != 0 && lastPlacedBidPrice >= pythSolPriceFloat) {
                     lastPlacedBidPrice = 0;
-                    bidAdversityTimestamp = Instant.now();
+                    bidAdversityTimestamp = now;
                     nextPlacedBidPrice =
                             ((float) (Math.max(nextPlacedBidPrice, bestBidPrice) + pythSolPriceFloat) / 2.0f);
                 }
             }
-            long durationSinceBidAdversity = Math.abs(Duration.between(Instant.now(), bidAdversityTimestamp).toSeconds());
-            long durationSinceBidAdversityMs = Math.abs(Duration.between(Instant.now(), bidAdversityTimestamp).toMillis());
-            long durationSinceBid = Math.abs(Duration.between(Instant.now(), lastBidTimestamp).toSeconds());
+            long durationSinceBidAdversity = Math.abs(Duration.between(now, bidAdversityTimestamp).toSeconds());
+            long durationSinceBidAdversityMs = Math.abs(Duration.between(now, bidAdversityTimestamp).toMillis());
+            long durationSinceBid = Math.abs(Duration.between(now, lastBidTimestamp).toSeconds());
             int bidSpreadAdversityDurationThreshold = 4;
             if (durationSinceBidAdversityMs <= (bidSpreadAdversityDurationThreshold * 1_000L)) {
                 double bpsToRemove = 0.999999 - (.000003 * (4.001 - (durationSinceBidAdversityMs / 1_000.0)));
@@ -224,26 +495,19 @@ public class OpenBookSolUsdc extends Strategy {
             }
             float percentageChangeFromLastBid = 1.00f - (lastPlacedBidPrice / nextPlacedBidPrice);
             boolean asxBidPresent = false;
-            for (Order bidOrder : bidOrders) {
-                if (bidOrder.getOwner().equals(SPACE_MONKEY) && bidOrder.getFloatPrice() >= nextPlacedBidPrice &&
-                        (bidOrder.getFloatQuantity() * bidOrder.getFloatPrice() >= 700)) {
+            final PriceLevelBook asxBids = bids.getSpaceMonkey();
+            for (int level = 0; level < asxBids.size() && asxBids.floatPriceAt(level) >= nextPlacedBidPrice; level++) {
+                for (long order = 0; order < asxBids.quantityAt(level) &&
+                        asxBids.floatPriceAt(level) >= nextPlacedBidPrice; order++) {
                     asxBidPresent = true; // If ASX isn't quoting (ABOVE YOU) widen
                     OpenBookConfig.setPriorityMicroLamports(getPriorityMicroLamports() + 15_000);
                     nextPlacedBidPrice = nextPlacedBidPrice * 1.00015f; // add bps if hes above us
                 }
             }
 
-            Order ourCurrentBid = null;
-            for (Order bidOrder : bidOrders) {
-                if (bidOrder.getOwner().equals(solUsdcOoaPubkey)) {
-                    if (ourCurrentBid == null || bidOrder.getFloatPrice() >= ourCurrentBid.getFloatPrice()) {
-                        ourCurrentBid = bidOrder; // use this as our best bid
-                    }
-                }
-            }
             boolean isOurBidInModel = true;
-            if (ourCurrentBid != null) {
-                float ourCurrentPrice = ourCurrentBid.getFloatPrice();
+            if (isCancelBid) {
+                float ourCurrentPrice = ourCurrentBid;
                 float difference = Math.abs(nextPlacedBidPrice - ourCurrentPrice);
                 float bpsDifference = difference / nextPlacedBidPrice;  // 0.01 cent / 25$
                 if (bpsDifference >= ALLOWED_PRICING_BPS_MISMATCH) {
@@ -256,15 +520,10 @@ public class OpenBookSolUsdc extends Strategy {
                 OpenBookConfig.setPriorityMicroLamports((int) ((double) getPriorityMicroLamports() * 1.35)); // fresh order
             }
             float smoothedBidPrice = nextPlacedBidPrice;
-            final float finalSmoothedBidPrice = smoothedBidPrice;
-            Optional<Order> sharpAboveBid = bidOrders.stream()
-                    .filter(order -> order.getFloatPrice() >= finalSmoothedBidPrice)
-                    .filter(order -> !order.getOwner().equals(solUsdcOoaPubkey))
-                    .filter(order -> KNOWN_SHARPS.contains(order.getOwner()))
-                    .min((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()))
-                    .stream().findAny();
-            if (sharpAboveBid.isPresent()) {
-                float jumpsPrice = sharpAboveBid.get().getFloatPrice();
+            // Lowest sharp bid at or above ours
+            float sharpAboveBid = bids.worstSharpAtOrBetterThan(smoothedBidPrice);
+            if (sharpAboveBid != 0f) {
+                float jumpsPrice = sharpAboveBid;
                 if (Math.abs(jumpsPrice - smoothedBidPrice) <= 0.0058 && jumpsPrice >= smoothedBidPrice) {
                     smoothedBidPrice += 0.0059f;
                 }
@@ -285,30 +544,30 @@ public class OpenBookSolUsdc extends Strategy {
                 }
             }
             // Asks
-            boolean isCancelAsk, isReadyToPlaceNewAsk, shouldCancelAsk;
+            boolean isReadyToPlaceNewAsk, shouldCancelAsk;
             synchronized (this) {
-                isCancelAsk = askOrders.stream().anyMatch(order -> order.getOwner().equals(solUsdcOoaPubkey));
-                isReadyToPlaceNewAsk = Math.abs(Duration.between(Instant.now(), lastAskTimestamp).toSeconds()) >=
+                isReadyToPlaceNewAsk = Math.abs(Duration.between(now, lastAskTimestamp).toSeconds()) >=
                         NEW_ORDER_DELAY_DURATION_SECONDS;
                 shouldCancelAsk = isCancelAsk || !isReadyToPlaceNewAsk;
             }
-            float nextPlacedAskPrice = (float) bestAskPrice * ASK_SPREAD_MULTIPLIER;
-            if (pythSolPrice.isPresent() && pythSolPriceConfidence.isPresent()) {
-                float halfConfidence = pythSolPriceConfidence.get() * PYTH_CONFIDENCE_INTERVAL_CONFIDENCE;
-                float upperBoundEstimation = pythSolPrice.get() + halfConfidence;
+            float nextPlacedAskPrice = (float) bestAskPrice * ASK_SPREAD_MULTIPLIER * quoteSkew
+                    * (1.0f + volatilityWiden);
+            if (pythSolPrice != null) {
+                float halfConfidence = pythSolPrice.getConfidence() * PYTH_CONFIDENCE_INTERVAL_CONFIDENCE;
+                float upperBoundEstimation = pythSolPrice.getPrice() + halfConfidence;
                 float pythSolPriceFloat = upperBoundEstimation * (1 + PYTH_PREDICTIVE_FACTOR); // DEJ
                 if (lastPlacedAskPrice != 0 && lastPlacedAskPrice <= pythSolPriceFloat) {
                     //log.info("Adv ask: " + nextPlacedAskPrice + " vs. Pyth " + pythSolPriceFloat);
-                    askAdversityTimestamp = Instant.now();
+                    askAdversityTimestamp = now;
                     nextPlacedAskPrice =
                             ((float) (Math.min(nextPlacedAskPrice, bestAskPrice) + pythSolPriceFloat) / 2.0f);
                     //log.info("Next ask:" + nextPlacedAskPrice);
                     lastPlacedAskPrice = 0; // re-quote
                 }
             }
-            long durationSinceAskAdversity = Math.abs(Duration.between(Instant.now(), askAdversityTimestamp).toSeconds());
-            long durationSinceAskAdversityMs = Math.abs(Duration.between(Instant.now(), askAdversityTimestamp).toMillis());
-            long durationSinceAsk = Math.abs(Duration.between(Instant.now(), lastAskTimestamp).toSeconds());
+            long durationSinceAskAdversity = Math.abs(Duration.between(now, askAdversityTimestamp).toSeconds());
+            long durationSinceAskAdversityMs = Math.abs(Duration.between(now, askAdversityTimestamp).toMillis());
+            long durationSinceAsk = Math.abs(Duration.between(now, lastAskTimestamp).toSeconds());
             // If adversity in past 4 sec, widen
             int askSpreadAdversityDurationThreshold = 3;
             if (durationSinceAskAdversityMs <= (askSpreadAdversityDurationThreshold * 1_000L)) {
@@ -335,25 +594,16 @@ public class OpenBookSolUsdc extends Strategy {
             }
             float percentageChangeFromLastAsk = 1.00f - (lastPlacedAskPrice / nextPlacedAskPrice);
             boolean asxAskPresent = false; // If ASX isn't quoting (BELOW YOU) raise proirity rate
-            for (Order askOrder : askOrders) {
-                if (askOrder.getOwner().equals(SPACE_MONKEY) && askOrder.getFloatPrice() <= nextPlacedAskPrice &&
-                        (askOrder.getFloatQuantity() * askOrder.getFloatPrice() >= 700)) {
+            final PriceLevelBook asxAsks = asks.getSpaceMonkey();
+            for (int level = 0; level < asxAsks.countAtOrBetterThan(nextPlacedAskPrice); level++) {
+                for (long order = 0; order < asxAsks.quantityAt(level); order++) {
                     asxAskPresent = true;
                     OpenBookConfig.setPriorityMicroLamports(getPriorityMicroLamports() + 15_000);
                 }
             }
-            Order ourCurrentAsk = null;
-            for (Order askOrder : askOrders) {
-                if (askOrder.getOwner().equals(solUsdcOoaPubkey)) {
-                    if (ourCurrentAsk == null || askOrder.getFloatPrice() <= ourCurrentAsk.getFloatPrice()) {
-                        // use this as our best ask
-                        ourCurrentAsk = askOrder;
-                    }
-                }
-            }
             boolean isOurAskInModel = true;
-            if (ourCurrentAsk != null) {
-                float ourCurrentPrice = ourCurrentAsk.getFloatPrice();
+            if (isCancelAsk) {
+                float ourCurrentPrice = ourCurrentAsk;
                 float expectedAskPrice = nextPlacedAskPrice;
                 float difference = Math.abs(expectedAskPrice - ourCurrentPrice);
                 float bpsDifference = difference / expectedAskPrice;  // 0.01 cent / 25$
@@ -366,18 +616,10 @@ public class OpenBookSolUsdc extends Strategy {
                 // Add fee for fresh placements
                 OpenBookConfig.setPriorityMicroLamports((int) ((double) getPriorityMicroLamports() * 1.55));
             }
-            // Cheat codes
-            final List<PublicKey> askSharps = new ArrayList<>(KNOWN_SHARPS);
-            final float nextPlacedAskFinal = nextPlacedAskPrice;
-            askSharps.add(PublicKey.valueOf("7pYyuhKrMTswQqZ9eXx813Qsx99yzvnbaUD3mUvX7wFm")); // ground
-            Optional<Order> jumpsBestAsk = askOrders.stream()
-                    .filter(order -> order.getFloatPrice() < nextPlacedAskFinal)
-                    .filter(order -> !order.getOwner().equals(solUsdcOoaPubkey))
-                    .filter(order -> askSharps.contains(order.getOwner()))
-                    .max((o1, o2) -> Float.compare(o1.getFloatPrice(), o2.getFloatPrice()))
-                    .stream().findAny();
-            if (jumpsBestAsk.isPresent()) {
-                float jumpsPrice = jumpsBestAsk.get().getFloatPrice();
+            // Cheat codes: highest sharp (or ground) ask below ours
+            float jumpsBestAsk = asks.worstSharpBetterThan(nextPlacedAskPrice);
+            if (jumpsBestAsk != 0f) {
+                float jumpsPrice = jumpsBestAsk;
                 if (Math.abs(jumpsPrice - nextPlacedAskPrice) <= 0.0058 && jumpsPrice <= nextPlacedAskPrice) {
                     nextPlacedAskPrice -= 0.0059f;
                 }
@@ -415,9 +657,15 @@ public class OpenBookSolUsdc extends Strategy {
             fixedRate = OpenBookConfig.LEAN_CALCULATION_INTERVAL
     )
     public void updateLeanSizes() {
+        // Both balances come from the same snapshot as the books, only refetched when polling is off
+        MarketAccounts accounts = latestAccounts.get();
+        if (accounts == null || System.nanoTime() - accounts.getReceivedNanos() >
+                TimeUnit.MILLISECONDS.toNanos(ORDER_BOOK_POLL_CEILING * 2)) {
+            accounts = fetchAccounts();
+        }
         // Lean WSOL is USDC balance is low.
-        OpenBookConfig.USDC_BALANCE = getUsdcBalance();
-        OpenBookConfig.WSOL_BALANCE = getWSolBalance();
+        OpenBookConfig.USDC_BALANCE = getUsdcBalance(accounts);
+        OpenBookConfig.WSOL_BALANCE = getWSolBalance(accounts);
 
         if (OpenBookConfig.USDC_BALANCE.isPresent()) {
             double amount = OpenBookConfig.USDC_BALANCE.get();
@@ -463,41 +711,144 @@ public class OpenBookSolUsdc extends Strategy {
         }
     }
 
-    @Scheduled(fixedRate = OpenBookConfig.ORDER_BOOK_POLL_INTERVAL)
+    @Scheduled(fixedRate = ORDER_BOOK_POLL_FLOOR)
     public void updateOb() {
+        // Push feed is live: books are streamed, the rest (event queue, OOA, wallets) is polled less often
+        long intervalMs = orderBookFeed != null && orderBookFeed.isLive()
+                ? LIVE_FEED_POLL_INTERVAL
+                : bookPollRate.getIntervalMs();
+        if (System.nanoTime() - lastFetchNanos < TimeUnit.MILLISECONDS.toNanos(intervalMs) ||
+                !pollBudget.tryAcquire()) {
+            return;
+        }
+        MarketSnapshot before = marketSnapshot.get();
+        if (fetchAccounts() != null) {
+            bookPollRate.update(!marketSnapshot.get().sameBooks(before));
+        }
+    }
+
+    /**
+     * One getMultipleAccounts round trip: publishes both book sides, reads new event queue events and keeps the
+     * wallets for lean sizing.
+     *
+     * @return the fetched accounts, or null on error
+     */
+    private MarketAccounts fetchAccounts() {
+        if (accountsFetcher == null) {
+            return null;
+        }
         try {
-            solUsdcMarket.reload(OpenBookConfig.solUsdcMarketBuilder);
+            MarketAccounts accounts = accountsFetcher.fetch();
+            lastFetchNanos = accounts.getReceivedNanos();
+            bookStaleness.observeSlot(accounts.getSlot());
+            recordAccounts(accounts);
+            latestAccounts.publish(accounts, accounts.getSlot());
+            if (accounts.getEventQueue() != null) {
+                eventQueueReader.read(accounts.getEventQueue(), accounts.getSlot());
+            }
+            if (accounts.getBids() != null && accounts.getAsks() != null &&
+                    !marketSnapshot.publish(accounts.getBids(), accounts.getAsks(), accounts.getSlot(),
+                            accounts.getReceivedNanos())) {
+                log.debug("Dropped out-of-order book poll @ " + accounts.getSlot());
+            }
+            return accounts;
         } catch (Exception ex) {
+            // Counted rather than logged at this rate, the event loop pulls quotes once the book goes stale
+            fetchErrorCount.incrementAndGet();
             log.debug("OB load error: " + ex.getClass().getName());
+            return null;
         }
     }
 
-    private void placeSolAsk(float solAmount, float price, boolean cancel) {
-        if (price <= lastPlacedBidPrice) {
-            log.info("SOL Ask cross: " + price + ", last bid: " + lastPlacedBidPrice);
-            return;
+    /**
+     * Cluster tip from the order RPC, independent of the data RPC the books come from.
+     */
+    @Scheduled(fixedRate = CLUSTER_SLOT_POLL_INTERVAL)
+    public void updateClusterSlot() {
+        try {
+            bookStaleness.observeSlot(rpcClient.getApi().getSlot(Commitment.PROCESSED));
+        } catch (RpcException e) {
+            log.debug("Slot poll error: " + e.getMessage());
         }
+    }
 
-        final Transaction placeTx = new Transaction();
-        placeTx.addInstruction(
+    /**
+     * Cancels both sides once per stale episode or halt. Both last placed prices and both price SMAs are reset, so
+     * quoting starts over from fresh prices once the book is fresh again.
+     */
+    private void pullQuotes(String reason) {
+        if (quotesPulled) {
+            return;
+        }
+        quotesPulled = true;
+        lastPlacedBidPrice = 0f;
+        lastPlacedAskPrice = 0f;
+        synchronized (smaValues) {
+            smaValues.clear();
+        }
+        synchronized (askSmaValues) {
+            askSmaValues.clear();
+        }
+        log.warn("SOL/USDC " + reason + ", pulling quotes");
+        if (quoteCapture != null) {
+            Instant now = Instant.now(clock);
+            quoteCapture.accept(new QuoteDecision(now, true, 0f, 0f, 0f, true));
+            quoteCapture.accept(new QuoteDecision(now, false, 0f, 0f, 0f, true));
+            return;
+        }
+        final Transaction cancelTx = new Transaction();
+        cancelTx.addInstruction(
                 ComputeBudgetProgram.setComputeUnitPrice(
                         PRIORITY_MICRO_LAMPORTS
                 )
         );
-        placeTx.addInstruction(
+        cancelTx.addInstruction(
                 ComputeBudgetProgram.setComputeUnitLimit(
                         PRIORITY_UNITS
                 )
         );
-        placeTx.addInstruction(
-                SerumProgram.consumeEvents(
+        cancelTx.addInstruction(
+                SerumProgram.cancelOrderByClientId(
+                        solUsdcMarket,
+                        solUsdcOoaPubkey,
                         OpenBookConfig.mmAccount.getPublicKey(),
-                        List.of(solUsdcOoaPubkey),
+                        OpenBookConfig.BID_CLIENT_ID
+                )
+        );
+        cancelTx.addInstruction(
+                SerumProgram.cancelOrderByClientId(
                         solUsdcMarket,
-                        OpenBookConfig.WSOL_BASE_WALLET,
-                        solUsdcQuoteWalletPubkey
+                        solUsdcOoaPubkey,
+                        OpenBookConfig.mmAccount.getPublicKey(),
+                        OpenBookConfig.ASK_CLIENT_ID
                 )
         );
+        Runnable runnable = () -> {
+            try {
+                log.info("Pull quotes cxl = " + rpcClient.getApi().sendTransaction(cancelTx,
+                        OpenBookConfig.mmAccount));
+            } catch (RpcException e) {
+                log.error("Pull quotes cxl error: " + e.getMessage());
+            }
+        };
+        orderExecutorService.submit(runnable);
+    }
+
+    private void recordAccounts(MarketAccounts accounts) {
+        long slot = accounts.getSlot();
+        long receivedNanos = accounts.getReceivedNanos();
+        String endpoint = accounts.getEndpoint();
+        journal.record(JournalRecordType.BIDS, slot, receivedNanos, endpoint, accounts.getBids());
+        journal.record(JournalRecordType.ASKS, slot, receivedNanos, endpoint, accounts.getAsks());
+        journal.record(JournalRecordType.EVENT_QUEUE, slot, receivedNanos, endpoint, accounts.getEventQueue());
+    }
+
+    private void placeSolAsk(float solAmount, float price, boolean cancel) {
+        if (price <= lastPlacedBidPrice) {
+            log.info("SOL Ask cross: " + price + ", last bid: " + lastPlacedBidPrice);
+            return;
+        }
+
         float inputPrice = price;
         int smaPeriod = 4;
         // Price SMA calculation
@@ -512,6 +863,33 @@ public class OpenBookSolUsdc extends Strategy {
                 //log.info("SMA ask: " + inputPrice);
             }
         }
+        if (!cancel) {
+            lastAskTimestamp = Instant.now(clock);
+        }
+        if (quoteCapture != null) {
+            quoteCapture.accept(new QuoteDecision(Instant.now(clock), false, price, inputPrice, solAmount, cancel));
+            return;
+        }
+        final Transaction placeTx = new Transaction();
+        placeTx.addInstruction(
+                ComputeBudgetProgram.setComputeUnitPrice(
+                        PRIORITY_MICRO_LAMPORTS
+                )
+        );
+        placeTx.addInstruction(
+                ComputeBudgetProgram.setComputeUnitLimit(
+                        PRIORITY_UNITS
+                )
+        );
+        placeTx.addInstruction(
+                SerumProgram.consumeEvents(
+                        OpenBookConfig.mmAccount.getPublicKey(),
+                        List.of(solUsdcOoaPubkey),
+                        solUsdcMarket,
+                        OpenBookConfig.WSOL_BASE_WALLET,
+                        solUsdcQuoteWalletPubkey
+                )
+        );
         Order askOrder = Order.builder()
                 .buy(false)
                 .clientOrderId(OpenBookConfig.ASK_CLIENT_ID)
@@ -530,8 +908,6 @@ public class OpenBookSolUsdc extends Strategy {
                             OpenBookConfig.ASK_CLIENT_ID
                     )
             );
-        } else {
-            lastAskTimestamp = Instant.now();
         }
         // Settle - base wallet gets created first then closed after
         placeTx.addInstruction(
@@ -575,6 +951,27 @@ public class OpenBookSolUsdc extends Strategy {
     }
 
     private void placeUsdcBid(float amount, float price, boolean cancel) {
+        float inputPrice = price;
+        int smaPeriod = 5;
+        // Price SMA calculation
+        synchronized (smaValues) {
+            if (smaValues.size() < smaPeriod) {
+                smaValues.push(price);
+                inputPrice = price;
+            } else if (smaValues.size() == smaPeriod) {
+                smaValues.removeLast();
+                smaValues.addFirst(inputPrice);
+                inputPrice = smaValues.stream().reduce(0f, Float::sum) / (float) smaPeriod;
+                //log.info("SMA bid: " + inputPrice);
+            }
+        }
+        if (!cancel) {
+            lastBidTimestamp = Instant.now(clock);
+        }
+        if (quoteCapture != null) {
+            quoteCapture.accept(new QuoteDecision(Instant.now(clock), true, price, inputPrice, amount, cancel));
+            return;
+        }
         final Transaction placeTx = new Transaction();
         placeTx.addInstruction(
                 ComputeBudgetProgram.setComputeUnitPrice(
@@ -595,20 +992,6 @@ public class OpenBookSolUsdc extends Strategy {
                         solUsdcQuoteWalletPubkey
                 )
         );
-        float inputPrice = price;
-        int smaPeriod = 5;
-        // Price SMA calculation
-        synchronized (smaValues) {
-            if (smaValues.size() < smaPeriod) {
-                smaValues.push(price);
-                inputPrice = price;
-            } else if (smaValues.size() == smaPeriod) {
-                smaValues.removeLast();
-                smaValues.addFirst(inputPrice);
-                inputPrice = smaValues.stream().reduce(0f, Float::sum) / (float) smaPeriod;
-                //log.info("SMA bid: " + inputPrice);
-            }
-        }
         Order bidOrder = Order.builder()
                 .buy(true)
                 .clientOrderId(OpenBookConfig.BID_CLIENT_ID)
@@ -627,8 +1010,6 @@ public class OpenBookSolUsdc extends Strategy {
                             OpenBookConfig.BID_CLIENT_ID
                     )
             );
-        } else {
-            lastBidTimestamp = Instant.now();
         }
         // Settle - base wallet gets created first then closed after
         placeTx.addInstruction(
@@ -672,7 +1053,7 @@ public class OpenBookSolUsdc extends Strategy {
     }
 
     public void hardCancelSingleBid() {
-        long durationSinceBidHardCxl = Math.abs(Duration.between(Instant.now(),
+        long durationSinceBidHardCxl = Math.abs(Duration.between(Instant.now(clock),
                 lastHardCancelBidTimestamp).toSeconds());
 
         if (durationSinceBidHardCxl >= 8) {
@@ -741,11 +1122,11 @@ public class OpenBookSolUsdc extends Strategy {
                 log.error("hardCXL BID error: " + e.getMessage());
             }
         }
-        lastHardCancelBidTimestamp = Instant.now();
+        lastHardCancelBidTimestamp = Instant.now(clock);
     }
 
     public void hardCancelSingleAsk() {
-        long durationSinceAskHardCxl = Math.abs(Duration.between(Instant.now(),
+        long durationSinceAskHardCxl = Math.abs(Duration.between(Instant.now(clock),
                 lastHardCancelAskTimestamp).toSeconds());
 
         if (durationSinceAskHardCxl >= 8) {
@@ -825,7 +1206,7 @@ public class OpenBookSolUsdc extends Strategy {
             }
         }
 
-        lastHardCancelAskTimestamp = Instant.now();
+        lastHardCancelAskTimestamp = Instant.now(clock);
     }
 
     private void initializeWrappedSolAccount() {
@@ -880,43 +1261,37 @@ public class OpenBookSolUsdc extends Strategy {
         }
     }
 
-    private Optional<Double> getUsdcBalance() {
-        try {
-            double amount = dataRpcClient.getApi().getTokenAccountBalance(
-                            solUsdcQuoteWalletPubkey,
-                            Commitment.PROCESSED
-                    )
-                    .getUiAmount();
+    private Optional<Double> getUsdcBalance(MarketAccounts accounts) {
+        Optional<Double> balance = accounts == null
+                ? Optional.empty()
+                : accounts.getQuoteWalletBalance(solUsdcMarket.getQuoteDecimals());
+        if (balance.isEmpty()) {
+            log.error("Unable to get USDC balance");
+            return Optional.empty();
+        }
+        double amount = balance.get();
 
-            // For now, always assume a huge bid is sitting (2 units of notional)
-            double assumedQuotedSize = 1.5;
-            amount -= ((SOL_QUOTE_SIZE * assumedQuotedSize) * START_SOL_PRICE);
+        // For now, always assume a huge bid is sitting (2 units of notional)
+        double assumedQuotedSize = 1.5;
+        amount -= ((SOL_QUOTE_SIZE * assumedQuotedSize) * START_SOL_PRICE);
 
-            int nonNegativeSafeMinQuantity = 100 + ThreadLocalRandom.current().nextInt(1, 50);
-            // to avoid negative by any possibility
-            amount = Math.max(amount, nonNegativeSafeMinQuantity);
+        int nonNegativeSafeMinQuantity = 100 + ThreadLocalRandom.current().nextInt(1, 50);
+        // to avoid negative by any possibility
+        amount = Math.max(amount, nonNegativeSafeMinQuantity);
 
-            // todo Add balance from the current USDC quotes
+        // todo Add balance from the current USDC quotes
 
-            return Optional.of(amount);
-        } catch (RpcException e) {
-            log.error("Unable to get USDC balance: " + e.getMessage());
-            return Optional.empty();
-        }
+        return Optional.of(amount);
     }
 
-    private Optional<Double> getWSolBalance() {
-        try {
-            double amount = dataRpcClient.getApi().getTokenAccountBalance(
-                            OpenBookConfig.WSOL_BASE_WALLET,
-                            Commitment.PROCESSED
-                    )
-                    .getUiAmount();
-            return Optional.of(amount);
-        } catch (RpcException e) {
-            log.error("Unable to get WSOL balance: " + e.getMessage());
-            return Optional.empty();
+    private Optional<Double> getWSolBalance(MarketAccounts accounts) {
+        Optional<Double> balance = accounts == null
+                ? Optional.empty()
+                : accounts.getBaseWalletBalance(solUsdcMarket.getBaseDecimals());
+        if (balance.isEmpty()) {
+            log.error("Unable to get WSOL balance");
         }
+        return balance;
     }
 
     private Account readMmAccountFromPrivateKey() {
@@ -1040,11 +1415,26 @@ public class OpenBookSolUsdc extends Strategy {
 
     // @Scheduled(fixedRate = 5_000L)
     public void hardCxlDetectionLoop() {
-        if (bidOrders.stream().filter(order -> order.getOwner().equals(solUsdcOoaPubkey)).count() > 1) {
+        MarketSnapshot snapshot = marketSnapshot.get();
+        if (countOurOrders(snapshot.getBids()) > 1) {
             hardCancelSingleBid();
         }
-        if (askOrders.stream().filter(order -> order.getOwner().equals(solUsdcOoaPubkey)).count() > 1) {
+        if (countOurOrders(snapshot.getAsks()) > 1) {
             hardCancelSingleAsk();
         }
     }
+
+    private int countOurOrders(ByteBuffer slab) {
+        if (slab == null) {
+            return 0;
+        }
+        SlabView view = SlabView.forMarket(solUsdcMarket).wrap(slab);
+        int count = 0;
+        while (view.next()) {
+            if (view.ownerEquals(ooaOwner)) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -0,0 +1,116 @@
+package com.mmorrell.strategies.openbook.sol;
+
+import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.MarketMetadataCache;
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.marketdata.journal.MarketDataJournalReader;
+import com.mmorrell.marketdata.replay.JournalReplayer;
+import com.mmorrell.marketdata.replay.SimulatedClock;
+import com.mmorrell.pricing.PriceLatencyTracker;
+import com.mmorrell.pricing.PythPricingSource;
+import com.mmorrell.serum.model.Market;
+import com.mmorrell.strategies.QuoteDecision;
+import lombok.extern.slf4j.Slf4j;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.Cluster;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Replays recorded market data journals through the real SOL/USDC event loop on a simulated clock, capturing
+ * every order it decides to place instead of sending it. Books and the event queue are published exactly as
+ * the live feed and poller publish them, Pyth prices go through {@link PythPricingSource}, and the loop ticks at
+ * {@link OpenBookConfig#EVENT_LOOP_DURATION_MS} of simulated time. Gaps in the journal make the book stale as they
+ * did live, pulling quotes. The same journal always yields the same decisions.
+ * <p>
+ * Run with {@code <journal dir> [ooa]}. Stdout is the output channel: it carries only the decisions, as CSV, so
+ * it can be redirected to a file. Progress and errors go to the log.
+ */
+@Slf4j
+public class OpenBookSolUsdcReplay {
+
+    private OpenBookSolUsdcReplay() {
+    }
+
+    public static List<QuoteDecision> replay(List<Path> journalFiles, Market market, PublicKey ooa)
+            throws IOException {
+        List<QuoteDecision> decisions = new ArrayList<>();
+        if (journalFiles.isEmpty()) {
+            return decisions;
+        }
+        SimulatedClock clock = new SimulatedClock(JournalReplayer.startOf(journalFiles.get(0)));
+        PythPricingSource pythPricingSource = new PythPricingSource(null, MarketDataJournal.disabled(), null, null, "",
+                new PriceLatencyTracker());
+        OpenBookSolUsdc strategy = new OpenBookSolUsdc(market, ooa, pythPricingSource, clock, decisions::add);
+
+        JournalReplayer replayer = new JournalReplayer(
+                clock,
+                OpenBookConfig.EVENT_LOOP_DURATION_MS,
+                strategy::solUsdcEventLoop,
+                record -> apply(record, strategy, pythPricingSource, clock)
+        );
+        long start = System.nanoTime();
+        long records = replayer.replay(journalFiles);
+        log.info("Replayed " + records + " records into " + decisions.size() + " decisions in " +
+                ((System.nanoTime() - start) / 1_000_000L) + "ms");
+        return decisions;
+    }
+
+    private static void apply(MarketDataJournalReader record, OpenBookSolUsdc strategy,
+                              PythPricingSource pythPricingSource, SimulatedClock clock) {
+        if (record.getSlot() >= 0) {
+            strategy.getBookStaleness().observeSlot(record.getSlot());
+        }
+        switch (record.getType()) {
+            case BIDS:
+            case ASKS:
+                // Recorded nanoTime belongs to the recording process, book age is measured on the replay clock
+                strategy.getMarketSnapshot().publishSide(
+                        record.getType() == JournalRecordType.BIDS,
+                        record.getData(),
+                        record.getSlot(),
+                        clock.epochNanos()
+                );
+                break;
+            case EVENT_QUEUE:
+                strategy.getEventQueueReader().read(record.getData(), record.getSlot());
+                break;
+            case PYTH_PRICE:
+                pythPricingSource.updateSolPrice(record.getData(), clock.epochNanos());
+                break;
+            default:
+                // Jupiter isn't used for SOL/USDC
+                break;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            log.error("Usage: OpenBookSolUsdcReplay <journal dir> [ooa]");
+            System.exit(1);
+        }
+        PublicKey ooa = new PublicKey(args.length > 1 ? args[1] : defaultOoa());
+        // Metadata comes from the startup cache, at most one RPC call
+        Market market = new MarketMetadataCache(new RpcClient(Cluster.MAINNET), Path.of("market-cache"))
+                .load(OpenBookConfig.SOL_USDC_MARKET_ID);
+
+        List<QuoteDecision> decisions = replay(MarketDataJournalReader.journalFiles(Path.of(args[0])), market, ooa);
+        System.out.println("time,side,price,orderPrice,quantity,cancel");
+        decisions.forEach(System.out::println);
+    }
+
+    private static String defaultOoa() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = OpenBookSolUsdcReplay.class.getResourceAsStream("/openbook.properties")) {
+            properties.load(inputStream);
+        }
+        return properties.getProperty("openbook.strategies.solusdc.ooa");
+    }
+}
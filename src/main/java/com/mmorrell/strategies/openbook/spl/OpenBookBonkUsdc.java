@@ -90,6 +90,7 @@ public class OpenBookBonkUsdc extends Strategy {
                             final JupiterPricingSource jupiterPricingSource) {
         this.executorService = Executors.newSingleThreadScheduledExecutor();
         this.jupiterPricingSource = jupiterPricingSource;
+        jupiterPricingSource.track(bonkMint, 300); // shared refresh, see JupiterPricingSource
 
         this.serumManager = serumManager;
         this.rpcClient = rpcClient;
@@ -113,7 +114,7 @@ public class OpenBookBonkUsdc extends Strategy {
             throw new RuntimeException(e);
         }
 
-        jupiterPriceUpdateLoop();
+        jupiterPricingSource.refresh();
     }
 
     @Override
@@ -603,17 +604,4 @@ public class OpenBookBonkUsdc extends Strategy {
         }
     }
 
-    //@Scheduled(fixedRate = 6_000L)
-    public void jupiterPriceUpdateLoop() {
-        int bonkUsdcValue = 300;
-
-        Optional<Double> jupiterPrice = jupiterPricingSource.getUsdcPriceForSymbol(
-                bonkMint,
-                bonkUsdcValue
-        );
-
-        jupiterPrice.ifPresent(aDouble -> jupiterPricingSource.updatePriceMap(bonkMint, aDouble));
-        jupiterPrice.ifPresent(aDouble -> log.info(BASE_SYMBOL + " Price: " + aDouble));
-    }
-
 }
@@ -91,6 +91,7 @@ public class OpenBookOrcaUsdc extends Strategy {
                             final JupiterPricingSource jupiterPricingSource) {
         this.executorService = Executors.newSingleThreadScheduledExecutor();
         this.jupiterPricingSource = jupiterPricingSource;
+        jupiterPricingSource.track(BASE_SYMBOL, BASE_QUOTE_SIZE); // shared refresh, see JupiterPricingSource
 
         this.serumManager = serumManager;
         this.rpcClient = rpcClient;
@@ -114,7 +115,7 @@ public class OpenBookOrcaUsdc extends Strategy {
             throw new RuntimeException(e);
         }
 
-        orcaPriceUpdateLoop();
+        jupiterPricingSource.refresh();
     }
 
     @Override
@@ -606,15 +607,4 @@ public class OpenBookOrcaUsdc extends Strategy {
         }
     }
 
-    //@Scheduled(fixedRate = 6_000L)
-    public void orcaPriceUpdateLoop() {
-        Optional<Double> orcaPrice = jupiterPricingSource.getUsdcPriceForSymbol(
-                BASE_SYMBOL,
-                BASE_QUOTE_SIZE
-        );
-
-        orcaPrice.ifPresent(aDouble -> jupiterPricingSource.updatePriceMap(BASE_SYMBOL, aDouble));
-        orcaPrice.ifPresent(aDouble -> log.info("Orca Price: " + aDouble));
-    }
-
 }
@@ -2,7 +2,9 @@ package com.mmorrell;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
 import com.mmorrell.pricing.JupiterPricingSource;
+import com.mmorrell.pricing.PriceLatencyTracker;
 import com.mmorrell.pyth.manager.PythManager;
 import com.mmorrell.pyth.model.PriceDataAccount;
 import com.mmorrell.serum.model.Market;
@@ -51,7 +53,9 @@ public class OpenBookTest {
         log.info("Jupiter pricing test.");
         JupiterPricingSource jupiterPricingSource = new JupiterPricingSource(
                 new OkHttpClient(),
-                new ObjectMapper()
+                new ObjectMapper(),
+                MarketDataJournal.disabled(),
+                new PriceLatencyTracker()
         );
 
         Optional<Double> price = jupiterPricingSource.getUsdcPriceForSymbol("ORCA", 1000);
@@ -0,0 +1,113 @@
+package com.mmorrell.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.marketdata.AccountNotificationDecoder;
+import com.mmorrell.pricing.JupiterPriceDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming decoders against the tree/map decoding they replaced, on a Jupiter price response and on an order
+ * book accountNotification (about 87 KB of base64).
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mmorrell.bench.JsonDecodeBenchmark}, or from the IDE; add {@code -prof gc} to the options
+ * to compare allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    private static final String[] IDS = {"SOL", "JitoSOL", "stSOL", "ORCA", "DezXAZ8z7PnrnRJjz3wXBoRgixCa6xjnB7YaB1pPB263"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JupiterPriceDecoder jupiterDecoder;
+    private AccountNotificationDecoder notificationDecoder;
+    private byte[] jupiterResponse;
+    private String accountNotification;
+
+    @Setup
+    public void setup() {
+        jupiterDecoder = new JupiterPriceDecoder(objectMapper.getFactory());
+        notificationDecoder = new AccountNotificationDecoder(objectMapper.getFactory());
+
+        StringBuilder json = new StringBuilder("{\"data\":{");
+        for (int i = 0; i < IDS.length; i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("\"").append(IDS[i]).append("\":{\"id\":\"").append(IDS[i])
+                    .append("\",\"mintSymbol\":\"").append(IDS[i])
+                    .append("\",\"vsToken\":\"EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v\",\"vsTokenSymbol\":\"USDC\"")
+                    .append(",\"price\":").append(20.0 + i * 1.37).append("}");
+        }
+        jupiterResponse = json.append("},\"timeTaken\":0.00061}").toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] slab = new byte[65_536 + 12];
+        new Random(7).nextBytes(slab);
+        accountNotification = "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"result\":" +
+                "{\"context\":{\"slot\":229871344},\"value\":{\"data\":[\"" +
+                Base64.getEncoder().encodeToString(slab) + "\",\"base64\"],\"executable\":false," +
+                "\"lamports\":457104960,\"owner\":\"srmqPvymJeFKQ4zGQed1GFppgkRHL9kaELCbyksJtPX\"," +
+                "\"rentEpoch\":361,\"space\":65548}},\"subscription\":23784}}";
+    }
+
+    @Benchmark
+    public void jupiterMap(Blackhole blackhole) throws IOException {
+        Map<String, Object> map = objectMapper.readValue(jupiterResponse, new TypeReference<>() {
+        });
+        Map<?, ?> data = (Map<?, ?>) map.get("data");
+        for (String id : IDS) {
+            blackhole.consume((double) ((Map<?, ?>) data.get(id)).get("price"));
+        }
+    }
+
+    @Benchmark
+    public int jupiterStreaming(Blackhole blackhole) throws IOException {
+        return jupiterDecoder.decode(jupiterResponse, (id, price) -> blackhole.consume(price));
+    }
+
+    @Benchmark
+    public void notificationTree(Blackhole blackhole) throws IOException {
+        JsonNode result = objectMapper.readTree(accountNotification).get("params").get("result");
+        blackhole.consume(result.get("context").get("slot").asLong());
+        blackhole.consume(Base64.getDecoder().decode(result.get("value").get("data").get(0).asText()));
+    }
+
+    @Benchmark
+    public void notificationStreaming(Blackhole blackhole) throws IOException {
+        blackhole.consume(notificationDecoder.decode(accountNotification));
+        blackhole.consume(notificationDecoder.getSlot());
+        blackhole.consume(notificationDecoder.getData());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonDecodeBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
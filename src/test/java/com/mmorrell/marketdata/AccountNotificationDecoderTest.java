@@ -0,0 +1,43 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AccountNotificationDecoderTest {
+
+    private final AccountNotificationDecoder decoder = new AccountNotificationDecoder(new JsonFactory());
+
+    @Test
+    public void decodesConfirmationsAndNotifications() throws Exception {
+        assertEquals(AccountNotificationDecoder.Type.SUBSCRIBED,
+                decoder.decode("{\"jsonrpc\":\"2.0\",\"result\":23784,\"id\":2}"));
+        assertEquals(2L, decoder.getId());
+        assertEquals(23784L, decoder.getSubscription());
+
+        byte[] account = new byte[]{1, 2, 3, (byte) 0xff, 0, 42};
+        // subscription after the result, the order nodes send it in
+        String notification = "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"result\":" +
+                "{\"context\":{\"slot\":5199307},\"value\":{\"data\":[\"" +
+                Base64.getEncoder().encodeToString(account) + "\",\"base64\"],\"executable\":false," +
+                "\"lamports\":33594,\"owner\":\"11111111111111111111111111111111\",\"rentEpoch\":635," +
+                "\"space\":6}},\"subscription\":23784}}";
+        assertEquals(AccountNotificationDecoder.Type.ACCOUNT, decoder.decode(notification));
+        assertEquals(23784L, decoder.getSubscription());
+        assertEquals(5199307L, decoder.getSlot());
+        assertArrayEquals(account, decoder.getData());
+
+        // Subscribe errors and closed accounts carry no data
+        assertEquals(AccountNotificationDecoder.Type.OTHER, decoder.decode(
+                "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32602,\"message\":\"Invalid\"},\"id\":3}"));
+        assertEquals(AccountNotificationDecoder.Type.OTHER, decoder.decode(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"result\":" +
+                        "{\"context\":{\"slot\":5199308},\"value\":null},\"subscription\":23784}}"));
+        assertNull(decoder.getData());
+    }
+}
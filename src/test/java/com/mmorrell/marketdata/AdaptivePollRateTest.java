@@ -0,0 +1,35 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptivePollRateTest {
+
+    @Test
+    public void speedsUpOnChangeAndBacksOffWhenIdle() {
+        AdaptivePollRate rate = new AdaptivePollRate(100L, 800L);
+        assertEquals(100L, rate.getIntervalMs());
+
+        assertEquals(125L, rate.update(false));
+        assertEquals(156L, rate.update(false));
+        for (int i = 0; i < 20; i++) {
+            rate.update(false);
+        }
+        assertEquals(800L, rate.getIntervalMs());
+
+        assertEquals(400L, rate.update(true));
+        assertEquals(200L, rate.update(true));
+        assertEquals(100L, rate.update(true));
+        assertEquals(100L, rate.update(true));
+        assertEquals(4L, rate.getChangedCount());
+        assertEquals(22L, rate.getUnchangedCount());
+    }
+
+    @Test
+    public void floorNeverAboveCeiling() {
+        AdaptivePollRate rate = new AdaptivePollRate(105L, 50L);
+        assertEquals(50L, rate.getIntervalMs());
+        assertEquals(50L, rate.update(false));
+    }
+}
@@ -0,0 +1,70 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookStalenessTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void staleWhenOlderThanBound() {
+        BookStaleness staleness = new BookStaleness(1_500L, 0L);
+        MarketSnapshot snapshot = MarketSnapshot.of(new byte[8], new byte[8], 100L, 0L);
+
+        assertFalse(staleness.check(snapshot, 1_500 * MS));
+        assertEquals(1_500L, staleness.getLastAgeMs());
+        assertTrue(staleness.check(snapshot, 1_501 * MS));
+        assertTrue(staleness.check(snapshot, 3_000 * MS));
+        assertEquals(1L, staleness.getStaleEpisodes());
+
+        // Fresh book ends the episode, the next outage is a new one
+        MarketSnapshot fresh = MarketSnapshot.of(new byte[8], new byte[8], 101L, 3_000 * MS);
+        assertFalse(staleness.check(fresh, 3_100 * MS));
+        assertTrue(staleness.check(fresh, 5_000 * MS));
+        assertEquals(2L, staleness.getStaleEpisodes());
+    }
+
+    @Test
+    public void staleWhenBehindClusterTip() {
+        BookStaleness staleness = new BookStaleness(1_500L, 8L);
+        MarketSnapshot snapshot = MarketSnapshot.of(new byte[8], new byte[8], 100L, 0L);
+
+        staleness.observeSlot(108L);
+        assertFalse(staleness.check(snapshot, 0L));
+        assertEquals(8L, staleness.getLastSlotLag());
+
+        staleness.observeSlot(109L);
+        staleness.observeSlot(105L);
+        assertEquals(109L, staleness.getClusterSlot());
+        assertTrue(staleness.check(snapshot, 0L));
+        assertEquals(9L, staleness.getLastSlotLag());
+    }
+
+    @Test
+    public void freshSideDoesNotHideStaleSide() {
+        BookStaleness staleness = new BookStaleness(1_500L, 8L);
+        MarketSnapshotReference reference = new MarketSnapshotReference();
+        reference.publish(new byte[8], new byte[8], 100L, 0L);
+        // Only bids keep coming
+        reference.publishSide(true, new byte[8], 120L, 3_000 * MS);
+        staleness.observeSlot(120L);
+
+        assertTrue(staleness.check(reference.get(), 3_000 * MS));
+        assertEquals(3_000L, staleness.getLastAgeMs());
+        assertEquals(20L, staleness.getLastSlotLag());
+
+        reference.publishSide(false, new byte[8], 120L, 3_000 * MS);
+        assertFalse(staleness.check(reference.get(), 3_000 * MS));
+    }
+
+    @Test
+    public void incompleteSnapshotIsNeverStale() {
+        BookStaleness staleness = new BookStaleness(1_500L, 8L);
+        staleness.observeSlot(1_000L);
+        assertFalse(staleness.check(MarketSnapshot.empty(), Long.MAX_VALUE));
+    }
+}
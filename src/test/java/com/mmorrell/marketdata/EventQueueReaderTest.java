@@ -0,0 +1,114 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventQueueReaderTest {
+
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+    private static final PublicKey OTHER = new PublicKey("5Di65JsuLU7n8RLZBPhWwHyxVTHM1feLXZnX6VjGpG7S");
+    private static final int CAPACITY = 4;
+
+    private final List<MarketEvent> events = new ArrayList<>();
+    private final EventQueueReader reader = new EventQueueReader(SlabFixtures.solUsdcMarket(), OOA);
+    private final EventQueue queue = new EventQueue();
+
+    @Test
+    public void publishesOnlyNewEventsWithOursFlagged() {
+        reader.addListener(events::add);
+        queue.push(0x1 | 0x8, OTHER, 1_000_000_000L, 21_000_000L, 0L, 21000L);
+        assertEquals(0, reader.read(queue.data(), 100L));   // sets the starting point
+
+        // Our maker bid: 1 SOL for 21.985 USDC plus a 0.005 USDC rebate
+        queue.push(0x1 | 0x4 | 0x8, OOA, 1_000_000_000L, 21_985_000L, 5_000L, 21990L);
+        queue.push(0x2, OTHER, 2_000_000_000L, 0L, 0L, 22010L);
+        assertEquals(2, reader.read(queue.data(), 101L));
+        assertEquals(0, reader.read(queue.data(), 102L));
+
+        MarketEvent fill = events.get(0);
+        assertTrue(fill.isFill() && fill.isBid() && fill.isMaker() && fill.isOurs());
+        assertEquals(1L, fill.getSeqNum());
+        assertEquals(101L, fill.getSlot());
+        assertEquals(21.99f, fill.getFloatPrice(), 0.00001f);
+        assertEquals(1f, fill.getFloatQuantity(), 0.00001f);
+        assertEquals(OOA, fill.getOpenOrders());
+
+        MarketEvent out = events.get(1);
+        assertTrue(out.isOut());
+        assertFalse(out.isOurs());
+        assertEquals(22.01f, out.getFloatPrice(), 0.00001f);
+        assertEquals(2f, out.getFloatQuantity(), 0.00001f);
+    }
+
+    @Test
+    public void readsAcrossWrapAndCountsOverruns() {
+        reader.addListener(events::add);
+        reader.read(queue.data(), 100L);
+        for (int i = 0; i < 3; i++) {
+            queue.push(0x1, OTHER, 1_000_000_000L, 22_000_000L, 0L, 22000L);
+        }
+        assertEquals(3, reader.read(queue.data(), 101L));
+
+        // Wraps the ring buffer and overruns it by two events
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            queue.push(0x1, OTHER, 1_000_000_000L, 22_000_000L, 0L, 22000L);
+        }
+        assertEquals(CAPACITY, reader.read(queue.data(), 102L));
+        assertEquals(2L, reader.getMissedEvents());
+        assertEquals(9L, events.get(events.size() - 1).getSeqNum() + 1);
+        assertEquals(5L, events.get(3).getSeqNum());
+    }
+
+    @Test
+    public void ignoresOlderSlots() {
+        reader.addListener(events::add);
+        reader.read(queue.data(), 100L);
+        byte[] older = queue.data();
+        queue.push(0x1, OTHER, 1_000_000_000L, 22_000_000L, 0L, 22000L);
+        assertEquals(1, reader.read(queue.data(), 102L));
+        assertEquals(0, reader.read(older, 101L));
+    }
+
+    /**
+     * Minimal event queue account: events are consumed as soon as they are pushed, like a busy crank.
+     */
+    private static class EventQueue {
+        private final ByteBuffer buffer = ByteBuffer.allocate(37 + (CAPACITY * 88) + 7).order(ByteOrder.LITTLE_ENDIAN);
+        private int seqNum = 0;
+
+        private EventQueue() {
+            buffer.put(0, "serum".getBytes(StandardCharsets.UTF_8));
+            buffer.putLong(5, 1L | (1L << 4));
+        }
+
+        private void push(int flags, PublicKey owner, long released, long paid, long fee, long priceLots) {
+            int offset = 37 + ((seqNum % CAPACITY) * 88);
+            buffer.put(offset, (byte) flags);
+            buffer.putLong(offset + 8, released);
+            buffer.putLong(offset + 16, paid);
+            buffer.putLong(offset + 24, fee);
+            buffer.putLong(offset + 32, seqNum);
+            buffer.putLong(offset + 40, priceLots);
+            buffer.put(offset + 48, owner.toByteArray());
+            buffer.putLong(offset + 80, 42L);
+            seqNum++;
+            buffer.putInt(13, seqNum % CAPACITY);   // head
+            buffer.putInt(21, 0);                   // count
+            buffer.putInt(29, seqNum);
+        }
+
+        private byte[] data() {
+            return buffer.array().clone();
+        }
+    }
+}
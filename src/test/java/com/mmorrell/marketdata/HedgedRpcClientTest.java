@@ -0,0 +1,129 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgedRpcClientTest {
+
+    private final List<MockWebServer> servers = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (MockWebServer server : servers) {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void hedgesToBackupWhenPrimaryIsSlow() throws RpcException {
+        String slow = stubNode(1L, 800L);
+        String fast = stubNode(2L, 0L);
+        HedgedRpcClient client = new HedgedRpcClient(List.of(slow, fast), 2_000, 470, 955);
+
+        long start = System.nanoTime();
+        assertEquals(2L, getSlot(client));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < 800L, "waited for slow primary: " + elapsedMs + "ms");
+
+        // Backup now has the better latency and is tried first
+        assertEquals(2L, getSlot(client));
+        Map<String, Object> fastStats = client.getStats().get(fast);
+        assertEquals(2L, fastStats.get("wins"));
+        assertEquals(1.0, fastStats.get("winRate"));
+        assertEquals(0L, client.getStats().get(slow).get("wins"));
+    }
+
+    @Test
+    public void failsOverImmediatelyOnError() throws RpcException {
+        String broken = stubError();
+        String healthy = stubNode(3L, 0L);
+        HedgedRpcClient client = new HedgedRpcClient(List.of(broken, healthy), 2_000, 470, 955);
+
+        assertEquals(3L, getSlot(client));
+        assertEquals(1L, client.getStats().get(broken).get("errors"));
+        assertEquals(1L, client.getStats().get(healthy).get("wins"));
+    }
+
+    @Test
+    public void throwsWhenEveryEndpointFails() {
+        HedgedRpcClient client = new HedgedRpcClient(List.of(stubError(), stubError()), 2_000, 470, 955);
+        RpcException ex = assertThrows(RpcException.class, () -> getSlot(client));
+        assertEquals("Node is behind", ex.getMessage());
+    }
+
+    @Test
+    public void singleEndpointCountsItsWins() throws RpcException {
+        String only = stubNode(5L, 0L);
+        HedgedRpcClient client = new HedgedRpcClient(List.of(only), 2_000, 470, 955);
+
+        assertEquals(5L, getSlot(client));
+        assertEquals(5L, getSlot(client));
+        assertEquals(2L, client.getStats().get(only).get("wins"));
+        assertEquals(1.0, client.getStats().get(only).get("winRate"));
+    }
+
+    @Test
+    public void rawCallsAreHedgedAndDecodeTheResult() throws RpcException {
+        String broken = stubError();
+        String healthy = stubNode(4L, 0L);
+        HedgedRpcClient client = new HedgedRpcClient(List.of(broken, healthy), 2_000, 470, 955);
+
+        long slot = client.callRaw("getSlot", new ArrayList<>(), JsonParser::getLongValue);
+        assertEquals(4L, slot);
+        assertEquals(healthy, client.getLastEndpoint());
+        assertEquals(1L, client.getStats().get(broken).get("errors"));
+
+        HedgedRpcClient failing = new HedgedRpcClient(List.of(stubError()), 2_000, 470, 955);
+        RpcException ex = assertThrows(RpcException.class,
+                () -> failing.callRaw("getSlot", new ArrayList<>(), JsonParser::getLongValue));
+        assertEquals("Node is behind", ex.getMessage());
+    }
+
+    private static long getSlot(HedgedRpcClient client) throws RpcException {
+        return client.call("getSlot", new ArrayList<>(), Long.class);
+    }
+
+    private String stubNode(long slot, long delayMs) {
+        return start(new MockResponse()
+                .setBody("{\"jsonrpc\":\"2.0\",\"result\":" + slot + ",\"id\":\"1\"}")
+                .setHeadersDelay(delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private String stubError() {
+        return start(new MockResponse()
+                .setBody("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32005,\"message\":\"Node is behind\"},\"id\":\"1\"}"));
+    }
+
+    private String start(MockResponse response) {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return response;
+            }
+        });
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        servers.add(server);
+        return server.url("/").toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.serum.model.Market;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MarketAccountsFetcherTest {
+
+    private static final long SLOT = 190_000_456L;
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+    private static final PublicKey BASE_WALLET = new PublicKey("So11111111111111111111111111111111111111112");
+    private static final PublicKey QUOTE_WALLET = new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void fetchesEveryAccountInOneCallAtOneSlot() throws Exception {
+        server.enqueue(new MockResponse().setBody(String.format(
+                "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":%d},\"value\":[%s,%s,%s,null,%s,%s]},\"id\":1}",
+                SLOT,
+                account(SlabFixtures.base64(SlabFixtures.BIDS)),
+                account(SlabFixtures.base64(SlabFixtures.ASKS)),
+                account(Base64.getEncoder().encodeToString(new byte[]{1, 2, 3})),
+                account(tokenAccount(2_500_000_000L)),
+                account(tokenAccount(1_234_500_000L))
+        )));
+
+        Market market = SlabFixtures.solUsdcMarket();
+        market.setBids(new PublicKey("5jWUncPNBMZJ3sTHKmMLszypVkoRK6bfEQMQUHweeQnh"));
+        market.setAsks(new PublicKey("EaXdHx7x3mdGA38j5RSmKYSXMzAFzzUXCLNBEDXDn1d5"));
+        market.setEventQueueKey(new PublicKey("8CvwxZ9Db6XbLD46NZwwmVDZZRDy7eydFcAGkXKh9axa"));
+        MarketAccountsFetcher fetcher = new MarketAccountsFetcher(
+                new HedgedRpcClient(List.of(server.url("/").toString()), 2_000, 470, 955),
+                market,
+                OOA,
+                BASE_WALLET,
+                QUOTE_WALLET
+        );
+
+        MarketAccounts accounts = fetcher.fetch();
+
+        assertEquals(1, server.getRequestCount());
+        RecordedRequest request = server.takeRequest();
+        JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+        assertEquals("getMultipleAccounts", body.get("method").asText());
+        assertEquals(6, body.get("params").get(0).size());
+        assertEquals(OOA.toBase58(), body.get("params").get(0).get(3).asText());
+
+        assertEquals(SLOT, accounts.getSlot());
+        assertArrayEquals(SlabFixtures.bytes(SlabFixtures.BIDS), accounts.getBids());
+        assertArrayEquals(SlabFixtures.bytes(SlabFixtures.ASKS), accounts.getAsks());
+        assertArrayEquals(new byte[]{1, 2, 3}, accounts.getEventQueue());
+        assertNull(accounts.getOpenOrders());
+        assertEquals(2.5, accounts.getBaseWalletBalance(9).orElseThrow(), 1e-9);
+        assertEquals(1234.5, accounts.getQuoteWalletBalance(6).orElseThrow(), 1e-9);
+    }
+
+    private static String account(String base64) {
+        return "{\"data\":[\"" + base64 + "\",\"base64\"],\"executable\":false,\"lamports\":2039280," +
+                "\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",\"rentEpoch\":361}";
+    }
+
+    private static String tokenAccount(long amount) {
+        ByteBuffer data = ByteBuffer.allocate(165).order(ByteOrder.LITTLE_ENDIAN);
+        data.putLong(64, amount);
+        return Base64.getEncoder().encodeToString(data.array());
+    }
+}
@@ -0,0 +1,85 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarketDataServiceTest {
+
+    private static final PublicKey SOL_USDC = new PublicKey("8BnEgHoWFysVcuFFX7QztDmzuH8r5ZFvyP3sYwn1XTh6");
+    private static final PublicKey ETH_USDC = new PublicKey("FZxi3yWkE5mMjyaZj6utmYL54QQYfMCKMcLaQZq4UwnA");
+
+    private final AtomicInteger metadataLoads = new AtomicInteger();
+    private final AtomicInteger polls = new AtomicInteger();
+    private final CountDownLatch polled = new CountDownLatch(3);
+    private final MarketDataService service = new MarketDataService(
+            marketId -> {
+                metadataLoads.incrementAndGet();
+                return new Market();
+            },
+            marketId -> false,
+            market -> () -> {
+                int poll = polls.incrementAndGet();
+                polled.countDown();
+                return new MarketAccounts(poll, System.nanoTime() - TimeUnit.SECONDS.toNanos(1), "",
+                        new byte[8], new byte[8], null, null, null, null);
+            },
+            Executors.newSingleThreadScheduledExecutor(),
+            1L,
+            new PollBudget(1_000.0)
+    );
+
+    @AfterEach
+    public void tearDown() {
+        service.close();
+    }
+
+    @Test
+    public void subscribersToOneMarketShareOneFeed() throws InterruptedException {
+        MarketDataService.Subscription first = service.subscribe(SOL_USDC, 5L);
+        MarketDataService.Subscription second = service.subscribe(SOL_USDC, 50L);
+        MarketDataService.Subscription other = service.attach(ETH_USDC);
+
+        assertEquals(2, service.getFeedCount());
+        assertEquals(2, metadataLoads.get());
+        assertSame(first.getMarket(), second.getMarket());
+        assertSame(first.getSnapshot(), second.getSnapshot());
+
+        // Polled at the fastest interval asked for; the attached market isn't polled at all
+        assertTrue(polled.await(5, TimeUnit.SECONDS));
+        assertTrue(first.getSnapshot().get().isComplete());
+        assertEquals(-1L, other.getSnapshot().get().getSlot());
+        assertEquals(5L, service.getStats().get(SOL_USDC.toBase58()).get("pollIntervalMs"));
+
+        first.close();
+        first.close();
+        assertEquals(50L, service.getStats().get(SOL_USDC.toBase58()).get("pollIntervalMs"));
+        second.close();
+        other.close();
+        assertEquals(0, service.getFeedCount());
+    }
+
+    @Test
+    public void skipsPollsWhileSnapshotIsFresh() throws InterruptedException {
+        MarketDataService.Subscription attached = service.attach(SOL_USDC);
+        // Published by the attached subscriber, received far enough in the future to stay fresh
+        attached.getSnapshot().publish(new byte[8], new byte[8], 1L, System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        MarketDataService.Subscription reader = service.subscribe(SOL_USDC, 5L);
+
+        Thread.sleep(100L);
+        assertEquals(0, polls.get());
+        assertTrue((Long) service.getStats().get(SOL_USDC.toBase58()).get("skippedPolls") > 0);
+        reader.close();
+        attached.close();
+    }
+}
@@ -0,0 +1,100 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarketMetadataCacheTest {
+
+    private static final PublicKey MARKET_ID = new PublicKey("8BnEgHoWFysVcuFFX7QztDmzuH8r5ZFvyP3sYwn1XTh6");
+    private static final PublicKey BIDS = new PublicKey("5jWUncPNBMZJ3sTHKmMLszypVkoRK6bfEQMQUHweeQnh");
+    private static final PublicKey OTHER_BIDS = new PublicKey("D2ibD81iWxrwDYhKq6ZRDrWFLM675MH8mzY5uPUT5FoS");
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void servesRepeatLoadsFromDisk() {
+        Market market = market(BIDS);
+        newCache(market).load(MARKET_ID);
+        assertEquals(1, loads.get());
+
+        Market cached = newCache(market).load(MARKET_ID);
+        // Only the background validation read
+        assertEquals(2, loads.get());
+        assertEquals(BIDS, cached.getBids());
+        assertEquals(market.getEventQueueKey(), cached.getEventQueueKey());
+        assertEquals(market.getQuoteVault(), cached.getQuoteVault());
+        assertEquals(1_000_000L, cached.getBaseLotSize());
+        assertEquals(9, cached.getBaseDecimals());
+        assertEquals(6, cached.getQuoteDecimals());
+        assertEquals(1L, cached.getVaultSignerNonce());
+    }
+
+    @Test
+    public void validationFlagsChangedMetadata() {
+        MarketMetadataCache unchanged = newCache(market(BIDS));
+        unchanged.load(MARKET_ID);
+        unchanged.load(MARKET_ID);
+        assertFalse(unchanged.isChanged(MARKET_ID));
+
+        MarketMetadataCache cache = newCache(market(OTHER_BIDS));
+        Market cached = cache.load(MARKET_ID);
+        // Left as loaded, users stop until restart instead
+        assertEquals(BIDS, cached.getBids());
+        assertTrue(cache.isChanged(MARKET_ID));
+
+        Market reloaded = newCache(null).load(MARKET_ID);
+        assertEquals(OTHER_BIDS, reloaded.getBids());
+    }
+
+    @Test
+    public void rejectsCorruptFiles() throws IOException {
+        byte[] data = MarketMetadataCache.encode(market(BIDS));
+        data[40] ^= 1;
+        assertNull(MarketMetadataCache.decode(data));
+
+        Files.write(directory.resolve(MARKET_ID.toBase58() + ".bin"), data);
+        Market fresh = market(BIDS);
+        assertSame(fresh, newCache(fresh).load(MARKET_ID));
+        assertEquals(1, loads.get());
+    }
+
+    // Validation runs inline so the tests can check its result
+    private MarketMetadataCache newCache(Market onChain) {
+        return new MarketMetadataCache(marketId -> {
+            loads.incrementAndGet();
+            return onChain;
+        }, directory, Runnable::run);
+    }
+
+    private static Market market(PublicKey bids) {
+        Market market = SlabFixtures.solUsdcMarket();
+        market.setOwnAddress(MARKET_ID);
+        market.setBaseMint(new PublicKey("So11111111111111111111111111111111111111112"));
+        market.setQuoteMint(new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v"));
+        market.setBaseVault(new PublicKey("CKxTHwM9fPMRRvZmFnFoqKNd9pQR21c5Aq9bh5h9oghX"));
+        market.setQuoteVault(new PublicKey("6A5NHCj1yF6urc9wZNe6Bcjj4LVszQNj5DwAWG97yzMu"));
+        market.setRequestQueue(new PublicKey("CPjXDcggXckEq9e4QeXUieVJBpUNpLEmpihLpg5vWjGF"));
+        market.setEventQueueKey(new PublicKey("8CvwxZ9Db6XbLD46NZwwmVDZZRDy7eydFcAGkXKh9axa"));
+        market.setBids(bids);
+        market.setAsks(new PublicKey("DPWRHQ3DmyXLXhYVgoFTvaHtqyodhYySqrrhgzw6HU5G"));
+        market.setVaultSignerNonce(1L);
+        market.setFeeRateBps(0L);
+        return market;
+    }
+}
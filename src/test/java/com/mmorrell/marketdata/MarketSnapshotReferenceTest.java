@@ -0,0 +1,56 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarketSnapshotReferenceTest {
+
+    private static final byte[] POLLED_BIDS = {1};
+    private static final byte[] POLLED_ASKS = {2};
+    private static final byte[] PUSHED_BIDS = {3};
+    private static final byte[] LATE_BIDS = {4};
+    private static final byte[] LATE_ASKS = {5};
+
+    @Test
+    public void publishesBothSidesTogether() {
+        MarketSnapshotReference reference = new MarketSnapshotReference();
+        assertFalse(reference.get().isComplete());
+
+        assertTrue(reference.publish(POLLED_BIDS, POLLED_ASKS, 100L, 1L));
+        MarketSnapshot snapshot = reference.get();
+        assertTrue(snapshot.isComplete());
+        assertTrue(snapshot.isSlotConsistent());
+        assertEquals(100L, snapshot.getSlot());
+        assertEquals(1, snapshot.getBids().get(0));
+        assertEquals(2, snapshot.getAsks().get(0));
+        assertTrue(snapshot.getBids().isReadOnly());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, snapshot.getAsks().order());
+    }
+
+    @Test
+    public void eachSideOnlyMovesForward() {
+        MarketSnapshotReference reference = new MarketSnapshotReference();
+        reference.publish(POLLED_BIDS, POLLED_ASKS, 100L, 1L);
+        assertTrue(reference.publishSide(true, PUSHED_BIDS, 102L, 2L));
+
+        // Slow poll from slot 101: asks are newer, bids are not
+        assertTrue(reference.publish(LATE_BIDS, LATE_ASKS, 101L, 3L));
+        MarketSnapshot snapshot = reference.get();
+        assertEquals(3, snapshot.getBids().get(0));
+        assertEquals(5, snapshot.getAsks().get(0));
+        assertEquals(102L, snapshot.getBidsSlot());
+        assertEquals(101L, snapshot.getAsksSlot());
+        assertFalse(snapshot.isSlotConsistent());
+
+        assertFalse(reference.publishSide(false, POLLED_ASKS, 100L, 4L));
+        assertFalse(reference.publish(POLLED_BIDS, POLLED_ASKS, 99L, 5L));
+        assertSame(snapshot, reference.get());
+        assertEquals(2L, reference.getDroppedCount());
+    }
+}
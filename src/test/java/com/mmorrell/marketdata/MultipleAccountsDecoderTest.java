@@ -0,0 +1,46 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MultipleAccountsDecoderTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    public void decodesSlotAndAccountDataInOrder() throws IOException {
+        MultipleAccountsDecoder.Accounts accounts = decode(
+                "{\"context\":{\"apiVersion\":\"1.14.17\",\"slot\":190000456}," +
+                "\"value\":[{\"data\":[\"AQID\",\"base64\"],\"executable\":false,\"lamports\":2039280," +
+                "\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",\"rentEpoch\":361},null," +
+                "{\"lamports\":1,\"data\":[\"BAU=\",\"base64\"]}]}");
+
+        assertEquals(190_000_456L, accounts.getSlot());
+        assertEquals(3, accounts.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, accounts.get(0));
+        // Missing accounts keep their index
+        assertNull(accounts.get(1));
+        assertArrayEquals(new byte[]{4, 5}, accounts.get(2));
+        assertNull(accounts.get(3));
+    }
+
+    @Test
+    public void rejectsResultWithoutSlot() {
+        assertThrows(IOException.class, () -> decode("{\"value\":[]}"));
+    }
+
+    private MultipleAccountsDecoder.Accounts decode(String result) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(result)) {
+            parser.nextToken();
+            return MultipleAccountsDecoder.decode(parser);
+        }
+    }
+}
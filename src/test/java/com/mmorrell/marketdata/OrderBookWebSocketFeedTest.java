@@ -0,0 +1,119 @@
+package com.mmorrell.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.marketdata.book.SlabView;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class OrderBookWebSocketFeedTest {
+
+    private static final PublicKey BIDS = new PublicKey("5jWUncPNBMZJ3sTHKmMLszypVkoRK6bfEQMQUHweeQnh");
+    private static final PublicKey ASKS = new PublicKey("EaXdHx7x3mdGA38j5RSmKYSXMzAFzzUXCLNBEDXDn1d5");
+    private static final long SLOT = 190_000_123L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new ReplayingNode()));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void replaysRecordedSlabsIntoSnapshot() throws InterruptedException {
+        MarketSnapshotReference marketSnapshot = new MarketSnapshotReference();
+        Map<Boolean, byte[]> received = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        OrderBookWebSocketFeed feed = new OrderBookWebSocketFeed(
+                new OkHttpClient(),
+                objectMapper,
+                server.url("/").toString(),
+                BIDS,
+                ASKS,
+                (isBid, data, slot) -> {
+                    assertEquals(SLOT, slot);
+                    assertTrue(marketSnapshot.publishSide(isBid, data, slot, System.nanoTime()));
+                    received.put(isBid, data);
+                    latch.countDown();
+                }
+        );
+        feed.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(feed.isLive());
+        assertArrayEquals(SlabFixtures.bytes(SlabFixtures.BIDS), received.get(true));
+        assertArrayEquals(SlabFixtures.bytes(SlabFixtures.ASKS), received.get(false));
+
+        MarketSnapshot snapshot = marketSnapshot.get();
+        assertTrue(snapshot.isComplete());
+        assertEquals(SLOT, snapshot.getBidsSlot());
+        assertEquals(SLOT, snapshot.getAsksSlot());
+        SlabView view = SlabView.forMarket(SlabFixtures.solUsdcMarket());
+        assertTrue(view.wrap(snapshot.getBids()).next());
+        assertEquals(21995L, view.priceLots());
+        float bestBid = view.floatPrice();
+        assertTrue(view.wrap(snapshot.getAsks()).next());
+        assertEquals(21998L, view.priceLots());
+        log.info("Best bid: " + bestBid + ", best ask: " + view.floatPrice());
+
+        feed.stop();
+    }
+
+    /**
+     * Confirms each accountSubscribe and then pushes the recorded slab for that account.
+     */
+    private class ReplayingNode extends WebSocketListener {
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            try {
+                JsonNode request = objectMapper.readTree(text);
+                long id = request.get("id").asLong();
+                String account = request.get("params").get(0).asText();
+                String fixture = account.equals(BIDS.toBase58()) ? SlabFixtures.BIDS : SlabFixtures.ASKS;
+                long subscriptionId = id + 100;
+
+                webSocket.send(String.format("{\"jsonrpc\":\"2.0\",\"result\":%d,\"id\":%d}", subscriptionId, id));
+                webSocket.send(String.format(
+                        "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"result\":" +
+                                "{\"context\":{\"slot\":%d},\"value\":{\"data\":[\"%s\",\"base64\"]," +
+                                "\"executable\":false,\"lamports\":457104960,\"owner\":" +
+                                "\"srmqPvymJeFKQ4zGQed1GFppgkRHL9kaELCbyksJtPX\",\"rentEpoch\":361}}," +
+                                "\"subscription\":%d}}",
+                        SLOT,
+                        SlabFixtures.base64(fixture),
+                        subscriptionId
+                ));
+            } catch (Exception e) {
+                log.error(e.getMessage());
+            }
+        }
+    }
+}
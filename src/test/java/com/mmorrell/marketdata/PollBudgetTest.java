@@ -0,0 +1,26 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PollBudgetTest {
+
+    @Test
+    public void budgetRefillsAtItsRate() {
+        long[] now = {0L};
+        PollBudget budget = new PollBudget(10.0, () -> now[0]);
+
+        // Burst of a fifth of a second
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        assertEquals(1L, budget.getDeniedCount());
+
+        now[0] += 100_000_000L;
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+}
@@ -0,0 +1,40 @@
+package com.mmorrell.marketdata;
+
+import com.mmorrell.serum.model.Market;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Recorded SOL/USDC bids and asks slab accounts (base64, as returned by getAccountInfo).
+ * Prices are in lots, 21995 lots = $21.995 with the market below.
+ */
+public class SlabFixtures {
+
+    public static final String BIDS = "fixtures/sol-usdc-bids.b64";
+    public static final String ASKS = "fixtures/sol-usdc-asks.b64";
+
+    public static String base64(String resourcePath) {
+        try (InputStream inputStream = new ClassPathResource(resourcePath).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static byte[] bytes(String resourcePath) {
+        return Base64.getDecoder().decode(base64(resourcePath));
+    }
+
+    public static Market solUsdcMarket() {
+        Market market = new Market();
+        market.setBaseDecimals((byte) 9);
+        market.setQuoteDecimals((byte) 6);
+        market.setBaseLotSize(1_000_000L);
+        market.setQuoteLotSize(1L);
+        return market;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mmorrell.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlotVersionedReferenceTest {
+
+    @Test
+    public void onlyMovesForward() {
+        SlotVersionedReference<String> book = new SlotVersionedReference<>();
+        assertNull(book.get());
+        assertEquals(-1L, book.getSlot());
+
+        assertTrue(book.publish("poll", 100L));
+        assertTrue(book.publish("push", 102L));
+        // Slow poll from before the push lands late
+        assertFalse(book.publish("late poll", 101L));
+        assertTrue(book.publish("push again", 102L));
+
+        assertEquals("push again", book.get());
+        assertEquals(102L, book.getSlot());
+        assertEquals(1L, book.getDroppedCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.MarketSnapshot;
+import com.mmorrell.marketdata.SlabFixtures;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookSignalsTest {
+
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+    private static final PublicKey FISH = new PublicKey("D2ibD81iWxrwDYhKq6ZRDrWFLM675MH8mzY5uPUT5FoS");
+    private static final PublicKey ASX = new PublicKey("5Di65JsuLU7n8RLZBPhWwHyxVTHM1feLXZnX6VjGpG7S");
+
+    private final OwnerIndex index = new OwnerIndex(
+            MarketLots.forMarket(SlabFixtures.solUsdcMarket()),
+            SlabView.ownerWords(OOA),
+            SlabView.ownerWords(List.of(FISH)),
+            SlabView.ownerWords(List.of(ASX)),
+            SlabView.ownerWords(List.of(ASX)),
+            SlabView.ownerWords(ASX),
+            700f
+    );
+    private final BookSignals signals = new BookSignals(3, 1_000L);
+
+    @Test
+    public void weighsTopOfBookWithoutOurOrders() {
+        assertTrue(index.update(snapshot(0L)));
+        assertTrue(signals.update(index));
+
+        PriceLevelBook bids = index.getBids().getOthers();
+        PriceLevelBook asks = index.getAsks().getOthers();
+        // Our 22.005 ask isn't the others' best
+        assertEquals(21.998f, asks.bestFloatPrice(), 0.00001f);
+
+        double bid = bids.bestFloatPrice();
+        double ask = asks.bestFloatPrice();
+        double bidSize = bids.floatQuantityAt(0);
+        double askSize = asks.floatQuantityAt(0);
+        assertEquals((bid + ask) / 2.0, signals.getMid(), 1e-9);
+        assertEquals((bid * askSize + ask * bidSize) / (bidSize + askSize), signals.getMicroprice(), 1e-9);
+
+        double bidDepth = bids.floatQuantityAt(0) + bids.floatQuantityAt(1) + bids.floatQuantityAt(2);
+        double askDepth = asks.floatQuantityAt(0) + asks.floatQuantityAt(1) + asks.floatQuantityAt(2);
+        assertEquals((bidDepth - askDepth) / (bidDepth + askDepth), signals.getImbalance(), 1e-9);
+        assertEquals(Math.signum(bidSize - askSize), Math.signum(signals.getMicropriceSkew()));
+    }
+
+    @Test
+    public void updatesOncePerSnapshot() {
+        MarketSnapshot snapshot = snapshot(0L);
+        index.update(snapshot);
+        assertTrue(signals.update(index));
+        assertFalse(signals.update(index));
+
+        index.update(snapshot(TimeUnit.MILLISECONDS.toNanos(500)));
+        assertTrue(signals.update(index));
+        // Same book, nothing moved
+        assertEquals(0.0, signals.getMicropriceChange());
+        assertEquals(0.0, signals.getImbalanceChange());
+    }
+
+    @Test
+    public void nothingIndexedLeavesSignalsAlone() {
+        index.update(MarketSnapshot.empty());
+        assertFalse(signals.update(index));
+        assertEquals(0.0, signals.getMicroprice());
+        assertEquals(0.0, signals.getMicropriceSkew());
+    }
+
+    private static MarketSnapshot snapshot(long receivedNanos) {
+        return MarketSnapshot.of(
+                SlabFixtures.bytes(SlabFixtures.BIDS),
+                SlabFixtures.bytes(SlabFixtures.ASKS),
+                190_000_123L,
+                receivedNanos
+        );
+    }
+}
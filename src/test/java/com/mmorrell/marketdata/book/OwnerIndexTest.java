@@ -0,0 +1,86 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.MarketSnapshot;
+import com.mmorrell.marketdata.SlabFixtures;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OwnerIndexTest {
+
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+    private static final PublicKey FISH = new PublicKey("D2ibD81iWxrwDYhKq6ZRDrWFLM675MH8mzY5uPUT5FoS");
+    private static final PublicKey ASX = new PublicKey("5Di65JsuLU7n8RLZBPhWwHyxVTHM1feLXZnX6VjGpG7S");
+    private static final PublicKey JUMP = new PublicKey("D8nvp2VbmnMjk7pgAjvHbmwKG5ZDmGAJpUcgr4ia95s9");
+
+    private final OwnerIndex index = new OwnerIndex(
+            MarketLots.forMarket(SlabFixtures.solUsdcMarket()),
+            SlabView.ownerWords(OOA),
+            SlabView.ownerWords(List.of(FISH)),
+            SlabView.ownerWords(List.of(ASX, JUMP)),
+            SlabView.ownerWords(List.of(ASX, JUMP)),
+            SlabView.ownerWords(ASX),
+            700f
+    );
+
+    @Test
+    public void indexesBidsByOwner() {
+        assertTrue(index.update(snapshot()));
+        OwnerIndex.Side bids = index.getBids();
+
+        assertEquals(7, bids.getAll().size());
+        assertEquals(21.995f, bids.bestMarketPrice(), 0.00001f);
+        assertEquals(1, bids.getOurOrderCount());
+        assertEquals(21.99f, bids.ourBestPrice(), 0.00001f);
+        assertEquals(21970L, bids.getFish().bestPrice());
+        assertEquals(2, bids.getSharps().size());
+        // ASX bid is only ~$660 of notional
+        assertTrue(bids.getSpaceMonkey().isEmpty());
+
+        assertEquals(21.988f, bids.worstSharpAtOrBetterThan(21.985f), 0.00001f);
+        assertEquals(21.98f, bids.worstSharpAtOrBetterThan(21.98f), 0.00001f);
+        assertEquals(0f, bids.worstSharpAtOrBetterThan(21.99f));
+    }
+
+    @Test
+    public void indexesAsksByOwner() {
+        assertTrue(index.update(snapshot()));
+        OwnerIndex.Side asks = index.getAsks();
+
+        assertEquals(21.998f, asks.getFish().bestFloatPrice(), 0.00001f);
+        assertEquals(22.003f, asks.bestMarketPrice(), 0.00001f);
+        assertEquals(1900L, asks.getMarket().bestQuantity());
+        assertEquals(22.005f, asks.ourBestPrice(), 0.00001f);
+        assertEquals(1, asks.getSpaceMonkey().size());
+        assertEquals(22007L, asks.getSpaceMonkey().bestPrice());
+
+        assertEquals(22.007f, asks.worstSharpBetterThan(22.01f), 0.00001f);
+        assertEquals(0f, asks.worstSharpBetterThan(22.007f));
+    }
+
+    @Test
+    public void indexesEachSnapshotOnce() {
+        MarketSnapshot snapshot = snapshot();
+        assertTrue(index.update(snapshot));
+        assertTrue(index.update(snapshot));
+        assertSame(snapshot, index.getIndexedSnapshot());
+
+        assertFalse(index.update(MarketSnapshot.empty()));
+        assertSame(snapshot, index.getIndexedSnapshot());
+    }
+
+    private static MarketSnapshot snapshot() {
+        return MarketSnapshot.of(
+                SlabFixtures.bytes(SlabFixtures.BIDS),
+                SlabFixtures.bytes(SlabFixtures.ASKS),
+                190_000_123L,
+                System.nanoTime()
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.SlabFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceLevelBookTest {
+
+    private final MarketLots lots = MarketLots.forMarket(SlabFixtures.solUsdcMarket());
+
+    @Test
+    public void aggregatesBidsFromSlab() {
+        PriceLevelBook bids = fromSlab(SlabFixtures.BIDS, true);
+
+        assertEquals(7, bids.size());
+        assertEquals(21995L, bids.bestPrice());
+        assertEquals(3200L, bids.bestQuantity());
+        assertEquals(21.995f, bids.bestFloatPrice(), 0.00001f);
+        assertEquals(21950L, bids.priceAt(bids.size() - 1));
+
+        assertEquals(1, bids.countBetterThan(21990L));
+        assertEquals(2, bids.countAtOrBetterThan(21990L));
+        assertEquals(2, bids.countAtOrBetterThan(21.99f));
+        assertEquals(2, bids.firstLevelAtOrBeyond(21.988f));
+    }
+
+    @Test
+    public void aggregatesAsksFromSlab() {
+        PriceLevelBook asks = fromSlab(SlabFixtures.ASKS, false);
+
+        assertEquals(6, asks.size());
+        assertEquals(21998L, asks.bestPrice());
+        assertEquals(22003L, asks.priceAt(1));
+        assertEquals(1900L, asks.quantityAt(1));
+
+        assertEquals(1, asks.countBetterThan(22003L));
+        assertEquals(2, asks.countAtOrBetterThan(22.003f));
+        assertEquals(6, asks.countBetterThan(23f));
+        assertEquals(0, asks.countBetterThan(21f));
+    }
+
+    @Test
+    public void insertsOutOfOrderAndGrows() {
+        PriceLevelBook asks = new PriceLevelBook(false, lots);
+        for (int i = 200; i > 0; i--) {
+            asks.add(i, 1);
+        }
+        asks.add(100, 4);
+
+        assertEquals(200, asks.size());
+        assertEquals(1L, asks.bestPrice());
+        assertEquals(5L, asks.quantityAt(99));
+        for (int i = 1; i < asks.size(); i++) {
+            assertTrue(asks.priceAt(i) > asks.priceAt(i - 1));
+        }
+
+        asks.clear();
+        assertTrue(asks.isEmpty());
+    }
+
+    private PriceLevelBook fromSlab(String fixture, boolean isBids) {
+        SlabView view = new SlabView(lots).wrap(ByteBuffer.wrap(SlabFixtures.bytes(fixture)));
+        PriceLevelBook book = new PriceLevelBook(isBids, lots);
+        while (view.next()) {
+            book.add(view.priceLots(), view.quantityLots());
+        }
+        return book;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mmorrell.marketdata.book;
+
+import com.mmorrell.marketdata.SlabFixtures;
+import com.mmorrell.serum.model.Order;
+import com.mmorrell.serum.model.OrderBook;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlabViewTest {
+
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+
+    @Test
+    public void walksBidsHighestFirstAndMatchesOrderBook() {
+        assertMatchesOrderBook(SlabFixtures.BIDS, true);
+    }
+
+    @Test
+    public void walksAsksLowestFirstAndMatchesOrderBook() {
+        assertMatchesOrderBook(SlabFixtures.ASKS, false);
+    }
+
+    @Test
+    public void readsOwnerAndClientId() {
+        SlabView bids = SlabView.forMarket(SlabFixtures.solUsdcMarket())
+                .wrap(ByteBuffer.wrap(SlabFixtures.bytes(SlabFixtures.BIDS)));
+        long[] ooa = SlabView.ownerWords(OOA);
+
+        int ours = 0;
+        while (bids.next()) {
+            if (bids.ownerEquals(ooa)) {
+                ours++;
+                assertEquals(21990L, bids.priceLots());
+                assertEquals(113371L, bids.clientOrderId());
+                byte[] owner = new byte[32];
+                bids.ownerBytes(owner);
+                assertEquals(OOA, new PublicKey(owner));
+            }
+        }
+        assertEquals(1, ours);
+    }
+
+    private void assertMatchesOrderBook(String fixture, boolean isBids) {
+        byte[] data = SlabFixtures.bytes(fixture);
+        SlabView view = SlabView.forMarket(SlabFixtures.solUsdcMarket()).wrap(ByteBuffer.wrap(data));
+        assertEquals(isBids, view.isBids());
+
+        Comparator<Order> bestFirst = Comparator.comparingLong(Order::getPrice);
+        List<Order> expected = OrderBook.readOrderBook(data).getOrders().stream()
+                .sorted(isBids ? bestFirst.reversed() : bestFirst)
+                .toList();
+
+        long lastPrice = isBids ? Long.MAX_VALUE : Long.MIN_VALUE;
+        int count = 0;
+        while (view.next()) {
+            assertTrue(isBids ? view.priceLots() <= lastPrice : view.priceLots() >= lastPrice);
+            assertEquals(expected.get(count).getPrice(), view.priceLots());
+            lastPrice = view.priceLots();
+            count++;
+        }
+        assertEquals(expected.size(), count);
+        assertEquals(view.leafCount(), count);
+        assertFalse(view.next());
+
+        view.reset();
+        assertTrue(view.next());
+        assertEquals(expected.get(0).getPrice(), view.priceLots());
+    }
+}
@@ -0,0 +1,103 @@
+package com.mmorrell.marketdata.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarketDataJournalTest {
+
+    private static final String ENDPOINT = "https://rpc.example.com/";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void recordsAreReadBackInOrder() throws IOException {
+        try (MarketDataJournal journal = new MarketDataJournal(directory, 64 * 1024)) {
+            assertTrue(journal.record(JournalRecordType.BIDS, 100L, 1_000L, ENDPOINT, new byte[]{1, 2, 3}));
+            assertTrue(journal.record(JournalRecordType.ASKS, 100L, 1_001L, ENDPOINT, new byte[]{4, 5}));
+            assertTrue(journal.record(JournalRecordType.JUPITER_PRICE, -1L, 1_002L, "jup", "{}".getBytes()));
+        }
+
+        List<Path> files = MarketDataJournalReader.journalFiles(directory);
+        assertEquals(1, files.size());
+        MarketDataJournalReader reader = new MarketDataJournalReader(files.get(0));
+        assertTrue(reader.getFileStartMillis() > 0);
+
+        assertTrue(reader.next());
+        assertEquals(JournalRecordType.BIDS, reader.getType());
+        assertEquals(100L, reader.getSlot());
+        assertEquals(1_000L, reader.getReceivedNanos());
+        assertEquals(ENDPOINT, reader.getEndpoint());
+        assertArrayEquals(new byte[]{1, 2, 3}, reader.getData());
+
+        assertTrue(reader.next());
+        assertEquals(JournalRecordType.ASKS, reader.getType());
+        assertArrayEquals(new byte[]{4, 5}, reader.getData());
+
+        assertTrue(reader.next());
+        assertEquals(JournalRecordType.JUPITER_PRICE, reader.getType());
+        assertEquals(-1L, reader.getSlot());
+        assertEquals("jup", reader.getEndpoint());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void rollsToANewFileWhenFull() throws IOException {
+        byte[] data = new byte[400];
+        try (MarketDataJournal journal = new MarketDataJournal(directory, 1024)) {
+            for (int i = 0; i < 5; i++) {
+                data[0] = (byte) i;
+                journal.record(JournalRecordType.EVENT_QUEUE, i, i, ENDPOINT, data.clone());
+            }
+            // Bigger than a whole file
+            assertTrue(journal.record(JournalRecordType.EVENT_QUEUE, 5L, 5L, ENDPOINT, new byte[2048]));
+        }
+
+        // Two records per file
+        List<Path> files = MarketDataJournalReader.journalFiles(directory);
+        assertEquals(3, files.size());
+        long expectedSlot = 0;
+        for (Path file : files) {
+            MarketDataJournalReader reader = new MarketDataJournalReader(file);
+            while (reader.next()) {
+                assertEquals(expectedSlot, reader.getSlot());
+                assertEquals(expectedSlot, reader.getData()[0]);
+                expectedSlot++;
+            }
+        }
+        assertEquals(5L, expectedSlot);
+    }
+
+    @Test
+    public void rejectsUnmappableFileSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new MarketDataJournal(directory, 3L * 1024 * 1024 * 1024));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MarketDataJournal(directory, MarketDataJournal.FILE_HEADER_SIZE));
+    }
+
+    @Test
+    public void recordAfterCloseIsRefused() {
+        MarketDataJournal journal = new MarketDataJournal(directory, 64 * 1024);
+        journal.close();
+        assertFalse(journal.record(JournalRecordType.BIDS, 1L, 1L, ENDPOINT, new byte[1]));
+        assertEquals(0L, journal.getRecordedCount());
+    }
+
+    @Test
+    public void disabledJournalRecordsNothing() {
+        MarketDataJournal journal = MarketDataJournal.disabled();
+        assertFalse(journal.isEnabled());
+        assertFalse(journal.record(JournalRecordType.BIDS, 1L, 1L, ENDPOINT, new byte[1]));
+        journal.close();
+    }
+}
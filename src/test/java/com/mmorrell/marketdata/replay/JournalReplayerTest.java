@@ -0,0 +1,60 @@
+package com.mmorrell.marketdata.replay;
+
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.marketdata.journal.MarketDataJournalReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void interleavesTicksWithRecordsOnTheSimulatedClock() throws IOException {
+        long base = System.nanoTime();
+        try (MarketDataJournal journal = new MarketDataJournal(directory, 64 * 1024)) {
+            journal.record(JournalRecordType.BIDS, 1L, base, "", new byte[]{1});
+            journal.record(JournalRecordType.ASKS, 2L, base + 250_000_000L, "", new byte[]{2});
+            journal.record(JournalRecordType.BIDS, 3L, base + 300_000_000L, "", new byte[]{3});
+        }
+        List<Path> files = MarketDataJournalReader.journalFiles(directory);
+        SimulatedClock clock = new SimulatedClock(JournalReplayer.startOf(files.get(0)));
+        List<String> events = new ArrayList<>();
+        List<Instant> recordTimes = new ArrayList<>();
+
+        JournalReplayer replayer = new JournalReplayer(
+                clock,
+                100L,
+                () -> events.add("tick " + Duration.between(recordTimes.get(0), clock.instant()).toMillis()),
+                record -> {
+                    recordTimes.add(clock.instant());
+                    events.add("record " + record.getSlot());
+                }
+        );
+        assertEquals(3L, replayer.replay(files));
+
+        // Ticks every 100ms from the first record; a record due at the same time as a tick goes first
+        assertEquals(List.of(
+                "record 1",
+                "tick 0",
+                "tick 100",
+                "tick 200",
+                "record 2",
+                "record 3",
+                "tick 300"
+        ), events);
+        assertEquals(250L, Duration.between(recordTimes.get(0), recordTimes.get(1)).toMillis());
+        assertEquals(recordTimes.get(2), clock.instant());
+    }
+}
@@ -0,0 +1,30 @@
+package com.mmorrell.marketdata.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SimulatedClockTest {
+
+    @Test
+    public void zonedViewMovesWithClock() {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2023-06-01T12:00:00Z"));
+        assertSame(clock, clock.withZone(ZoneOffset.UTC));
+
+        Clock tokyo = clock.withZone(ZoneId.of("Asia/Tokyo"));
+        assertEquals(ZoneId.of("Asia/Tokyo"), tokyo.getZone());
+        assertEquals(LocalTime.of(21, 0), LocalTime.now(tokyo));
+
+        clock.set(Instant.parse("2023-06-01T12:30:00Z"));
+        assertEquals(Instant.parse("2023-06-01T12:30:00Z"), tokyo.instant());
+        assertEquals(LocalTime.of(21, 30), LocalTime.now(tokyo));
+        assertSame(clock, tokyo.withZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,68 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EwmaVolatilityTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void flatPriceHasNoVolatility() {
+        EwmaVolatility volatility = new EwmaVolatility(5_000L, 60_000L);
+        for (int i = 0; i <= 100; i++) {
+            volatility.update(20.0, i * SECOND);
+        }
+        assertEquals(0.0, volatility.getMaxVolatility());
+        assertEquals(100, volatility.getTickCount());
+    }
+
+    @Test
+    public void measuresReturnsPerRootSecond() {
+        EwmaVolatility volatility = new EwmaVolatility(5_000L, 60_000L);
+        // +/-10 bps every 4 seconds is 5 bps per root second, whatever the half-life
+        double logReturn = 0.001;
+        for (int i = 0; i <= 200; i++) {
+            volatility.update(20.0 * Math.exp(i % 2 == 0 ? 0.0 : logReturn), i * 4 * SECOND);
+        }
+        assertEquals(0.0005, volatility.getVolatility(0), 1e-9);
+        assertEquals(0.0005, volatility.getVolatility(1), 1e-9);
+    }
+
+    @Test
+    public void shortHalfLifeReactsToSpikeFirst() {
+        EwmaVolatility volatility = new EwmaVolatility(5_000L, 300_000L);
+        long time = 0L;
+        for (int i = 0; i <= 600; i++, time += SECOND) {
+            volatility.update(20.0 * (i % 2 == 0 ? 1.0 : 1.0001), time);
+        }
+        double calmShort = volatility.getVolatility(0);
+        double calmLong = volatility.getVolatility(1);
+        assertEquals(calmShort, calmLong, calmLong * 0.01);
+
+        for (int i = 0; i < 5; i++, time += SECOND) {
+            volatility.update(20.0 * (i % 2 == 0 ? 1.002 : 1.0), time);
+        }
+        assertTrue(volatility.getVolatility(0) > 5 * calmShort);
+        assertTrue(volatility.getVolatility(1) > calmLong);
+        assertTrue(volatility.getVolatility(1) < volatility.getVolatility(0) / 4);
+        assertEquals(volatility.getVolatility(0), volatility.getMaxVolatility());
+    }
+
+    @Test
+    public void waitsForTicksToSpanAQuarterHalfLife() {
+        EwmaVolatility volatility = new EwmaVolatility(4_000L);
+        volatility.update(20.0, 0L);
+        // A burst of ticks a millisecond apart
+        volatility.update(20.01, TimeUnit.MILLISECONDS.toNanos(1));
+        volatility.update(20.0, TimeUnit.MILLISECONDS.toNanos(2));
+        assertEquals(0.0, volatility.getVolatility(0));
+
+        volatility.update(20.0, 2 * SECOND);
+        assertTrue(volatility.getVolatility(0) > 0.0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FairValueEngineTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void weighsSourcesByConfidenceAndAge() {
+        FairValueEngine engine = new FairValueEngine();
+        FairValueEngine.Market market = engine.market("SOL/USDC", 1_000L, 5_000L);
+        FairValueEngine.Source pyth = market.source("pyth", 1.0);
+        FairValueEngine.Source book = market.source("book", 1.0);
+        assertNull(engine.get("SOL/USDC"));
+
+        pyth.update(20.0, 0.02, 1_000 * MS);
+        assertEquals(20.0, engine.get("SOL/USDC").getPrice(), 1e-9);
+
+        // Same confidence and age: plain average
+        book.update(20.2, 0.02, 1_000 * MS);
+        assertEquals(20.1, market.getFairValue().getPrice(), 1e-9);
+
+        // Twice the confidence interval, a quarter of the weight
+        book.update(20.2, 0.04, 1_000 * MS);
+        assertEquals((20.0 * 4 + 20.2) / 5, market.getFairValue().getPrice(), 1e-9);
+
+        // One half-life newer, twice the weight
+        book.update(20.2, 0.02, 2_000 * MS);
+        FairValue value = market.getFairValue();
+        assertEquals((20.0 + 20.2 * 2) / 3, value.getPrice(), 1e-9);
+        assertEquals(2_000 * MS, value.getTimeNanos());
+        assertEquals("pyth", value.getContributions().get(0).getSource());
+        assertEquals(1.0 / 3, value.getContributions().get(0).getShare(), 1e-9);
+
+        // Past the max age, pyth drops out
+        book.update(20.3, 0.02, 7_000 * MS);
+        value = market.getFairValue();
+        assertEquals(20.3, value.getPrice(), 1e-9);
+        assertEquals(1, value.getContributions().size());
+
+        // And comes back on its next input
+        pyth.update(20.1, 0.02, 7_000 * MS);
+        assertEquals(20.2, market.getFairValue().getPrice(), 1e-9);
+    }
+
+    @Test
+    public void incrementalSumsMatchFromScratch() {
+        FairValueEngine.Market market = new FairValueEngine().market("JitoSOL/USDC", 500L, 60_000L);
+        FairValueEngine.Source[] sources = {
+                market.source("pyth", 1.0), market.source("jupiter", 0.5), market.source("book", 1.0)
+        };
+        double[] weights = {1.0, 0.5, 1.0};
+        double[] prices = new double[3];
+        double[] confidences = new double[3];
+        long[] times = new long[3];
+        Random random = new Random(11);
+        long now = 0L;
+        // Long enough to rebase the decay several times
+        for (int i = 0; i < 5_000; i++) {
+            now += random.nextInt(40) * MS;
+            int source = random.nextInt(3);
+            prices[source] = 25.0 + random.nextGaussian() * 0.1;
+            confidences[source] = 0.005 + random.nextDouble() * 0.05;
+            times[source] = now;
+            sources[source].update(prices[source], confidences[source], now);
+
+            double weightSum = 0.0;
+            double weightedSum = 0.0;
+            for (int s = 0; s < 3; s++) {
+                if (times[s] == 0L && prices[s] == 0.0) {
+                    continue;
+                }
+                double weight = weights[s] / (confidences[s] * confidences[s])
+                        * Math.pow(0.5, (now - times[s]) / (500.0 * MS));
+                weightSum += weight;
+                weightedSum += weight * prices[s];
+            }
+            assertEquals(weightedSum / weightSum, market.getFairValue().getPrice(), 1e-9);
+        }
+    }
+}
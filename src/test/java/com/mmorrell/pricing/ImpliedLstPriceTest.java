@@ -0,0 +1,39 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImpliedLstPriceTest {
+
+    @Test
+    public void impliesLstPriceFromSlowRate() {
+        ImpliedLstPrice implied = new ImpliedLstPrice(600_000L);
+        assertFalse(implied.hasRate());
+        assertTrue(Double.isNaN(implied.price(22.0)));
+
+        // First sample sets the rate: 24.2 / 22.0 = 1.1 SOL per LST
+        assertTrue(implied.updateRate(24.2, 22.0, 1_000L));
+        assertEquals(1.1, implied.getRate(), 1e-12);
+        // Follows every SOL price without another rate sample
+        assertEquals(25.3, implied.price(23.0), 1e-9);
+        assertEquals(27.5, implied.price(25.0), 1e-9);
+
+        // A sample one half-life later moves the rate halfway
+        long halfLife = 1_000L + TimeUnit.MINUTES.toNanos(10);
+        assertTrue(implied.updateRate(24.64, 22.0, halfLife));
+        assertEquals(1.11, implied.getRate(), 1e-9);
+
+        // Older, repeated and unusable samples are ignored
+        assertFalse(implied.updateRate(30.0, 22.0, 1_000L));
+        assertFalse(implied.updateRate(30.0, 22.0, halfLife));
+        assertFalse(implied.updateRate(30.0, 0.0, halfLife + 1L));
+        assertEquals(1.11, implied.getRate(), 1e-9);
+        assertEquals(2L, implied.getSampleCount());
+        assertEquals(halfLife, implied.getRateNanos());
+    }
+}
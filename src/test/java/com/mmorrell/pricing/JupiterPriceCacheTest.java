@@ -0,0 +1,43 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JupiterPriceCacheTest {
+
+    @Test
+    public void pricesExpireAfterTheirOwnTtl() {
+        AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        JupiterPriceCache cache = new JupiterPriceCache(now::get);
+        cache.track("ORCA", 10_000L);
+        cache.track("stSOL", 30_000L);
+        assertTrue(cache.isStale("ORCA"));
+        assertEquals(Optional.empty(), cache.getFresh("ORCA"));
+
+        // Not tracked: ignored
+        cache.put("BONK", 0.00001, now.get());
+        assertEquals(Optional.empty(), cache.getFresh("BONK"));
+
+        cache.put("ORCA", 0.55, now.get());
+        cache.put("stSOL", 24.1, now.get());
+        assertEquals(Optional.of(0.55), cache.getFresh("ORCA"));
+        assertFalse(cache.isStale("ORCA"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertTrue(cache.isStale("ORCA"));
+        assertEquals(Optional.empty(), cache.getFresh("ORCA"));
+        assertEquals(Optional.of(24.1), cache.getFresh("stSOL"));
+        assertEquals(true, cache.getStats().get("ORCA").get("stale"));
+
+        // A response that arrived before the cached one doesn't replace it
+        cache.put("stSOL", 23.9, now.get() - TimeUnit.SECONDS.toNanos(20));
+        assertEquals(Optional.of(24.1), cache.getFresh("stSOL"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.mmorrell.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JupiterPricingSourceTest {
+
+    @Test
+    public void appliesEveryPriceInBatchResponse() throws Exception {
+        JupiterPricingSource source = new JupiterPricingSource(null, new ObjectMapper(), MarketDataJournal.disabled(),
+                new PriceLatencyTracker());
+        source.track("JitoSOL", 500L);
+        source.track("stSOL", 500L);
+        assertTrue(source.isStale("JitoSOL"));
+
+        String json = "{\"data\":{" +
+                "\"JitoSOL\":{\"id\":\"J1toso1uCk3RLmjorhTtrVwY9HJ7X8V9yYac6Y7kGCPn\",\"price\":26.41}," +
+                "\"stSOL\":{\"id\":\"7dHbWXmci3dT8UFYWYZweBLXgycu7Y3iL6trKn1Y7ARj\",\"price\":25.87}" +
+                "},\"timeTaken\":0.0012}";
+        List<String> heard = new ArrayList<>();
+        source.addListener((name, id, price) -> heard.add(name + " " + id + " " + price.getPrice()));
+        assertEquals(2, source.apply(json.getBytes(StandardCharsets.UTF_8), System.nanoTime()));
+
+        assertEquals(Optional.of(26.41), source.getCachedPrice("JitoSOL"));
+        assertEquals(Optional.of(25.87), source.getCachedPrice("stSOL"));
+        assertFalse(source.isStale("stSOL"));
+
+        OraclePrice jitoSol = source.getPrice("JitoSOL");
+        assertEquals(26.41f, jitoSol.getPrice());
+        assertEquals(-1L, jitoSol.getPublishSlot());
+        assertEquals(List.of("jupiter JitoSOL 26.41", "jupiter stSOL 25.87"), heard);
+    }
+}
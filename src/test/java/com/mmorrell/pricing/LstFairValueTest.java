@@ -0,0 +1,61 @@
+package com.mmorrell.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmorrell.config.OpenBookConfig;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LstFairValueTest {
+
+    @Test
+    public void blendsEachInputOnce() throws Exception {
+        FairValueEngine engine = new FairValueEngine();
+        FairValueEngine.Source solBook = engine.market(OpenBookConfig.SOL_USDC_FAIR_VALUE_MARKET,
+                OpenBookConfig.FAIR_VALUE_HALF_LIFE_MS, OpenBookConfig.FAIR_VALUE_MAX_SOURCE_AGE_MS)
+                .source("book", 1.0);
+        PriceLatencyTracker latencyTracker = new PriceLatencyTracker();
+        PythPricingSource pyth = new PythPricingSource(null, MarketDataJournal.disabled(), null, null, "",
+                latencyTracker);
+        JupiterPricingSource jupiter = new JupiterPricingSource(null, new ObjectMapper(),
+                MarketDataJournal.disabled(), latencyTracker);
+        // SOL's Pyth feed stands in for the LST's
+        LstFairValue lst = new LstFairValue(engine, "LST/USDC", OpenBookConfig.PYTH_SOL_SYMBOL, "JitoSOL", pyth,
+                jupiter);
+
+        lst.update();
+        assertNull(lst.getFairValue());
+
+        long now = System.nanoTime();
+        jupiter.apply("{\"data\":{\"JitoSOL\":{\"price\":22.0},\"SOL\":{\"price\":20.0}}}"
+                .getBytes(StandardCharsets.UTF_8), now);
+        pyth.updateSolPrice(PythPricingSourceTest.priceAccount(2_200_000_000L, 1_000_000L, 1_001L), now);
+        solBook.update(21.0, 0.01, now);
+        lst.update();
+
+        FairValue blended = lst.getFairValue();
+        assertEquals(3, blended.getContributions().size());
+        // Implied: SOL/USDC fair value times the 1.1 LST/SOL rate from the Jupiter response
+        FairValue.Contribution implied = blended.getContributions().stream()
+                .filter(contribution -> contribution.getSource().equals("implied"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(23.1, implied.getPrice(), 1e-9);
+
+        // Nothing new: the same Pyth publish slot, Jupiter response and SOL fair value aren't fed again
+        pyth.updateSolPrice(PythPricingSourceTest.priceAccount(2_200_000_000L, 1_000_000L, 1_001L), now + 1L);
+        lst.update();
+        assertSame(blended, lst.getFairValue());
+
+        // A new SOL fair value moves the implied price on its own
+        solBook.update(21.5, 0.01, now + 2L);
+        lst.update();
+        assertNotSame(blended, lst.getFairValue());
+    }
+}
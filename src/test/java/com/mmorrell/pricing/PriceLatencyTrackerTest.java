@@ -0,0 +1,50 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceLatencyTrackerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reportsLastCompleteInterval() {
+        PriceLatencyTracker tracker = new PriceLatencyTracker();
+        PriceLatencyTracker.Source pyth = tracker.source("pyth");
+        assertSame(pyth, tracker.source("pyth"));
+
+        for (int i = 1; i <= 100; i++) {
+            pyth.recordReceiveToUse(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        pyth.recordPublishToReceive(TimeUnit.MILLISECONDS.toNanos(400));
+        // Nothing reported until the interval completes
+        assertEquals(0L, receiveToUse(tracker).get("count"));
+
+        tracker.rotate();
+        Map<String, Object> stats = receiveToUse(tracker);
+        assertEquals(100L, stats.get("count"));
+        assertEquals(50_000.0, (long) stats.get("p50"), 500.0);
+        assertEquals(99_000.0, (long) stats.get("p99"), 1_000.0);
+        assertEquals(100_000.0, (long) stats.get("max"), 1_000.0);
+        Map<String, Object> publishToReceive = (Map<String, Object>)
+                ((Map<String, Object>) tracker.getStats().get("pyth")).get("publishToReceiveMicros");
+        assertEquals(1L, publishToReceive.get("count"));
+
+        // Negative and huge latencies are clamped, not thrown
+        pyth.recordReceiveToUse(-5L);
+        pyth.recordReceiveToUse(TimeUnit.HOURS.toNanos(1));
+        tracker.rotate();
+        assertEquals(2L, receiveToUse(tracker).get("count"));
+        assertTrue((long) receiveToUse(tracker).get("max") >= TimeUnit.MINUTES.toMicros(10) - 10_000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> receiveToUse(PriceLatencyTracker tracker) {
+        return (Map<String, Object>) ((Map<String, Object>) tracker.getStats().get("pyth")).get("receiveToUseMicros");
+    }
+}
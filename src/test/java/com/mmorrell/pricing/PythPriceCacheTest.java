@@ -0,0 +1,53 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.Map;
+
+import static com.mmorrell.pricing.PythPricingSourceTest.priceAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PythPriceCacheTest {
+
+    @Test
+    public void keepsNewestPricePerFeed() {
+        Map<String, PublicKey> feeds = PythPriceCache.parseFeeds(
+                "SOL=H6ARHf6YXhGYeQfUzQNGk6rDNnLBQKrenN712K4AQJEG, stSOL=JCKa72xFYGWBEVJZ7AKZ2ofugWPBfrrouQviaGaohi3R");
+        PythPriceCache cache = new PythPriceCache(feeds);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.indexOf("stSOL"));
+        assertEquals(-1, cache.indexOf("mSOL"));
+        assertNull(cache.get("SOL"));
+        assertNull(cache.get("mSOL"));
+
+        assertTrue(cache.update(0, priceAccount(2_150_000_000L, 1_000_000L, 1_001L), 5_000L));
+        assertTrue(cache.update(1, priceAccount(2_300_000_000L, 2_000_000L, 990L), 5_100L));
+        OraclePrice sol = cache.get(0);
+        assertEquals(21.5f, sol.getPrice(), 0.0001f);
+        assertEquals(0.01f, sol.getConfidence(), 0.0001f);
+        assertEquals(1_001L, sol.getPublishSlot());
+        assertEquals(23.0f, cache.get("stSOL").getPrice(), 0.0001f);
+
+        // Older publish slot than cached: dropped, the same tuple is still read
+        assertFalse(cache.update(0, priceAccount(2_140_000_000L, 1_000_000L, 1_000L), 6_000L));
+        assertSame(sol, cache.get(0));
+        assertEquals(1L, cache.getDroppedCount());
+
+        // Same publish slot, e.g. the next poll: the cached tuple and its receive time stay
+        assertFalse(cache.update(0, priceAccount(2_150_000_000L, 1_000_000L, 1_001L), 6_500L));
+        assertSame(sol, cache.get(0));
+        assertEquals(5_000L, cache.get(0).getReceivedNanos());
+        assertEquals(1L, cache.getDuplicateCount());
+        assertEquals(1L, cache.getDroppedCount());
+
+        // Feeds are independent
+        assertTrue(cache.update(1, priceAccount(2_310_000_000L, 2_000_000L, 995L), 6_100L));
+        assertSame(sol, cache.get(0));
+        assertEquals(2, cache.snapshot().size());
+    }
+}
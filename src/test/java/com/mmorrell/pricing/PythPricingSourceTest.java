@@ -0,0 +1,52 @@
+package com.mmorrell.pricing;
+
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class PythPricingSourceTest {
+
+    @Test
+    public void keepsNewestPublishedPrice() {
+        PythPricingSource pythPricingSource = new PythPricingSource(null, MarketDataJournal.disabled(), null, null, "",
+                new PriceLatencyTracker());
+        assertFalse(pythPricingSource.isLive());
+
+        pythPricingSource.updateSolPrice(priceAccount(2_150_000_000L, 1_000_000L, 1_001L), 5_000L);
+        assertEquals(21.5f, pythPricingSource.getSolMidpointPrice().get(), 0.0001f);
+        assertEquals(0.01f, pythPricingSource.getSolPriceConfidence().get(), 0.0001f);
+        assertEquals(1_001L, pythPricingSource.getSolPricePublishSlot());
+        assertEquals(5_000L, pythPricingSource.getSolPriceReceivedNanos());
+
+        // A poll that raced the socket and returned an older price
+        pythPricingSource.updateSolPrice(priceAccount(2_140_000_000L, 1_000_000L, 1_000L), 6_000L);
+        assertEquals(21.5f, pythPricingSource.getSolMidpointPrice().get(), 0.0001f);
+        assertEquals(5_000L, pythPricingSource.getSolPriceReceivedNanos());
+
+        pythPricingSource.updateSolPrice(priceAccount(2_160_000_000L, 2_000_000L, 1_002L), 7_000L);
+        assertEquals(21.6f, pythPricingSource.getSolMidpointPrice().get(), 0.0001f);
+        assertEquals(1_002L, pythPricingSource.getSolPricePublishSlot());
+    }
+
+    /**
+     * Minimal v2 price account: header, exponent -8 and the aggregate price.
+     */
+    static byte[] priceAccount(long price, long confidence, long publishSlot) {
+        ByteBuffer buffer = ByteBuffer.allocate(3312).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, 0xa1b2c3d4);
+        buffer.putInt(4, 2);
+        buffer.putInt(8, 3);
+        buffer.putInt(12, 3312);
+        buffer.putInt(20, -8);
+        buffer.putLong(208, price);
+        buffer.putLong(216, confidence);
+        buffer.putInt(224, 1);
+        buffer.putLong(232, publishSlot);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mmorrell.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplayPricingSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void replaysCsvTicksInRecordedOrder() throws Exception {
+        Path file = directory.resolve("ticks.csv");
+        Files.writeString(file, String.join("\n",
+                "receivedNanos,symbol,price,confidence,slot",
+                "# SOL and JitoSOL",
+                "1000,SOL,22.01,0.01,190000001",
+                "3000,SOL,22.03,0.02,190000003",
+                "2000,JitoSOL,24.5,0.0245,-1",
+                ""));
+        AtomicLong now = new AtomicLong(50L);
+        ReplayPricingSource source = new ReplayPricingSource("replay", now::get);
+        List<String> heard = new ArrayList<>();
+        source.addListener((name, symbol, price) -> heard.add(name + " " + symbol + " " + price.getPrice()));
+
+        assertEquals(3, source.loadCsv(file));
+        assertNull(source.getPrice("SOL"));
+
+        assertTrue(source.next());
+        OraclePrice sol = source.getPrice("SOL");
+        assertEquals(22.01f, sol.getPrice());
+        assertEquals(0.01f, sol.getConfidence());
+        assertEquals(190000001L, sol.getPublishSlot());
+        // Stamped when replayed, not when recorded
+        assertEquals(50L, sol.getReceivedNanos());
+
+        now.set(60L);
+        assertEquals(2, source.replay(0.0));
+        assertFalse(source.next());
+        assertEquals(List.of("replay SOL 22.01", "replay JitoSOL 24.5", "replay SOL 22.03"), heard);
+        assertEquals(22.03f, source.getPrice("SOL").getPrice());
+        assertEquals(60L, source.getPrice("JitoSOL").getReceivedNanos());
+    }
+
+    @Test
+    public void pacesReplayToRecordedSpacing() {
+        ReplayPricingSource source = new ReplayPricingSource("replay");
+        for (int i = 0; i < 5; i++) {
+            source.add(i * 10_000_000L, "SOL", 22f + i, 0.01f, i);
+        }
+        // 40ms recorded, at twice the pace
+        long start = System.nanoTime();
+        assertEquals(5, source.replay(2.0));
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+
+        source.rewind();
+        assertEquals(0, source.getPosition());
+        assertEquals(5, source.replay(0.0));
+        assertEquals(26f, source.getPrice("SOL").getPrice());
+    }
+}
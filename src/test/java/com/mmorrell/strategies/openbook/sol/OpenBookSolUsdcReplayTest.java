@@ -0,0 +1,96 @@
+package com.mmorrell.strategies.openbook.sol;
+
+import com.mmorrell.marketdata.SlabFixtures;
+import com.mmorrell.marketdata.journal.JournalRecordType;
+import com.mmorrell.marketdata.journal.MarketDataJournal;
+import com.mmorrell.marketdata.journal.MarketDataJournalReader;
+import com.mmorrell.strategies.QuoteDecision;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OpenBookSolUsdcReplayTest {
+
+    private static final PublicKey OOA = new PublicKey("1rAS3fWujnbcLZ7hNuMJbu2nFEubHyevKzYUfbPVLPY");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void sameJournalYieldsSameDecisions() throws IOException {
+        byte[] bids = SlabFixtures.bytes(SlabFixtures.BIDS);
+        byte[] asks = SlabFixtures.bytes(SlabFixtures.ASKS);
+        long base = System.nanoTime();
+        try (MarketDataJournal journal = new MarketDataJournal(directory, 4 * 1024 * 1024)) {
+            for (int i = 0; i < 20; i++) {
+                long receivedNanos = base + i * 400_000_000L;
+                journal.record(JournalRecordType.BIDS, 1_000L + i, receivedNanos, "", bids);
+                journal.record(JournalRecordType.ASKS, 1_000L + i, receivedNanos, "", asks);
+            }
+        }
+        List<Path> files = MarketDataJournalReader.journalFiles(directory);
+
+        List<QuoteDecision> first = OpenBookSolUsdcReplay.replay(files, SlabFixtures.solUsdcMarket(), OOA);
+        List<QuoteDecision> second = OpenBookSolUsdcReplay.replay(files, SlabFixtures.solUsdcMarket(), OOA);
+
+        assertFalse(first.isEmpty());
+        assertTrue(first.stream().anyMatch(QuoteDecision::isBid));
+        assertTrue(first.stream().anyMatch(decision -> !decision.isBid()));
+        assertEquals(csv(first), csv(second));
+    }
+
+    @Test
+    public void journalGapPullsQuotesOnce() throws IOException {
+        byte[] bids = SlabFixtures.bytes(SlabFixtures.BIDS);
+        byte[] asks = SlabFixtures.bytes(SlabFixtures.ASKS);
+        long base = System.nanoTime();
+        try (MarketDataJournal journal = new MarketDataJournal(directory, 4 * 1024 * 1024)) {
+            journal.record(JournalRecordType.BIDS, 1_000L, base, "", bids);
+            journal.record(JournalRecordType.ASKS, 1_000L, base, "", asks);
+            // No book for 3 seconds, then only bids come back
+            for (int i = 0; i < 5; i++) {
+                journal.record(JournalRecordType.BIDS, 1_001L + i, base + 3_000_000_000L + i * 400_000_000L, "",
+                        bids);
+            }
+            // Both sides fresh again from 5 seconds
+            for (int i = 0; i < 5; i++) {
+                long receivedNanos = base + 5_000_000_000L + i * 400_000_000L;
+                journal.record(JournalRecordType.BIDS, 1_010L + i, receivedNanos, "", bids);
+                journal.record(JournalRecordType.ASKS, 1_010L + i, receivedNanos, "", asks);
+            }
+        }
+
+        List<QuoteDecision> decisions = OpenBookSolUsdcReplay.replay(
+                MarketDataJournalReader.journalFiles(directory), SlabFixtures.solUsdcMarket(), OOA);
+
+        List<QuoteDecision> pulls = decisions.stream()
+                .filter(decision -> decision.isCancel() && decision.getPrice() == 0f)
+                .collect(Collectors.toList());
+        assertEquals(2, pulls.size());
+        assertTrue(pulls.get(0).isBid());
+        assertFalse(pulls.get(1).isBid());
+        // The 3s old asks keep the book stale, fresh bids don't bring quotes back
+        List<QuoteDecision> recovered = decisions.subList(decisions.indexOf(pulls.get(1)) + 1, decisions.size());
+        assertFalse(recovered.isEmpty());
+        assertTrue(Duration.between(pulls.get(1).getTime(), recovered.get(0).getTime()).toMillis() >= 3_000L);
+        // Quoting starts over: the first quotes aren't averaged with prices from before the gap
+        QuoteDecision firstBid = recovered.stream().filter(QuoteDecision::isBid).findFirst().orElseThrow();
+        QuoteDecision firstAsk = recovered.stream().filter(decision -> !decision.isBid()).findFirst().orElseThrow();
+        assertEquals(firstBid.getPrice(), firstBid.getOrderPrice());
+        assertEquals(firstAsk.getPrice(), firstAsk.getOrderPrice());
+    }
+
+    private static String csv(List<QuoteDecision> decisions) {
+        return decisions.stream().map(QuoteDecision::toString).collect(Collectors.joining("\n"));
+    }
+}